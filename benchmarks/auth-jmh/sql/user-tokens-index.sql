@@ -0,0 +1,107 @@
+-- Index size and lookup latency of user_tokens: UUID varchar token vs SHA-256 bytea digest.
+--
+--   psql -h localhost -U truerally_user -d truerally -v rows=2000000 -f sql/user-tokens-index.sql
+--
+-- Works on scratch tables in the bench schema; nothing in auth is touched.
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 1000000
+\endif
+\timing off
+
+CREATE SCHEMA IF NOT EXISTS bench;
+DROP TABLE IF EXISTS bench.tokens_legacy, bench.tokens_hashed;
+
+-- Before: 36-char UUID string, unique varchar index, free-form type
+CREATE TABLE bench.tokens_legacy (
+    id         uuid PRIMARY KEY,
+    token      varchar(255) NOT NULL UNIQUE,
+    type       varchar(255),
+    is_used    boolean NOT NULL DEFAULT false,
+    expires_at timestamp(6) NOT NULL
+);
+
+-- After: 32-byte digest + smallint code, composite unique index
+CREATE TABLE bench.tokens_hashed (
+    id         uuid PRIMARY KEY,
+    token_hash bytea NOT NULL,
+    type       smallint NOT NULL,
+    is_used    boolean NOT NULL DEFAULT false,
+    expires_at timestamp(6) NOT NULL
+);
+CREATE UNIQUE INDEX ON bench.tokens_hashed (token_hash, type);
+
+-- Same logical tokens in both tables: the hashed table stores sha256 of the legacy string
+INSERT INTO bench.tokens_legacy
+SELECT gen_random_uuid(), gen_random_uuid()::text,
+       (ARRAY['VERIFICATION', 'RESET_PASSWORD', 'REFRESH'])[1 + (i % 3)],
+       i % 4 = 0, now() + interval '7 days'
+FROM generate_series(1, :rows) AS i;
+
+INSERT INTO bench.tokens_hashed
+SELECT id, sha256(convert_to(token, 'UTF8')),
+       CASE type WHEN 'VERIFICATION' THEN 1 WHEN 'RESET_PASSWORD' THEN 2 ELSE 3 END,
+       is_used, expires_at
+FROM bench.tokens_legacy;
+
+VACUUM ANALYZE bench.tokens_legacy;
+VACUUM ANALYZE bench.tokens_hashed;
+
+\echo '== table and index sizes'
+SELECT c.relname,
+       pg_size_pretty(pg_relation_size(c.oid)) AS size,
+       pg_relation_size(c.oid)                 AS bytes
+FROM pg_class c
+JOIN pg_namespace n ON n.oid = c.relnamespace
+WHERE n.nspname = 'bench'
+ORDER BY c.relname;
+
+-- 10k random probes per variant, timed server-side so client round trips don't dominate
+\echo '== lookup latency (10000 probes each)'
+CREATE OR REPLACE FUNCTION bench.probe_legacy(probes int) RETURNS interval AS $$
+DECLARE
+    keys text[];
+    started timestamptz;
+    hit record;
+BEGIN
+    SELECT array_agg(token) INTO keys
+    FROM (SELECT token FROM bench.tokens_legacy TABLESAMPLE SYSTEM (1) LIMIT probes) s;
+    started := clock_timestamp();
+    FOR i IN 1 .. array_length(keys, 1) LOOP
+        SELECT id INTO hit FROM bench.tokens_legacy
+        WHERE token = keys[i] AND type = 'REFRESH' AND is_used = false;
+    END LOOP;
+    RETURN (clock_timestamp() - started) / array_length(keys, 1);
+END $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bench.probe_hashed(probes int) RETURNS interval AS $$
+DECLARE
+    keys bytea[];
+    started timestamptz;
+    hit record;
+BEGIN
+    -- digest computed inside the loop, as the application does per request
+    SELECT array_agg(token) INTO keys
+    FROM (SELECT convert_to(token, 'UTF8') AS token
+          FROM bench.tokens_legacy TABLESAMPLE SYSTEM (1) LIMIT probes) s;
+    started := clock_timestamp();
+    FOR i IN 1 .. array_length(keys, 1) LOOP
+        SELECT id INTO hit FROM bench.tokens_hashed
+        WHERE token_hash = sha256(keys[i]) AND type = 3 AND is_used = false;
+    END LOOP;
+    RETURN (clock_timestamp() - started) / array_length(keys, 1);
+END $$ LANGUAGE plpgsql;
+
+-- warm both indexes once, then measure
+SELECT bench.probe_legacy(10000), bench.probe_hashed(10000);
+SELECT bench.probe_legacy(10000) AS legacy_per_lookup,
+       bench.probe_hashed(10000) AS hashed_per_lookup;
+
+\echo '== plans'
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT id FROM bench.tokens_hashed
+WHERE token_hash = sha256(convert_to((SELECT token FROM bench.tokens_legacy LIMIT 1), 'UTF8'))
+  AND type = 3 AND is_used = false;
+
+DROP SCHEMA bench CASCADE;
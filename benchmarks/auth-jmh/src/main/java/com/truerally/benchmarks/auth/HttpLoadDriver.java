@@ -0,0 +1,141 @@
+package com.truerally.benchmarks.auth;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load generator used to compare service execution modes
+ * (e.g. auth-service with and without {@code VIRTUAL_THREADS=true}).
+ * Each simulated client runs on its own virtual thread and fires the next
+ * request as soon as the previous one completes.
+ * <pre>
+ *   java -cp benchmarks/auth-jmh/target/benchmarks.jar com.truerally.benchmarks.auth.HttpLoadDriver \
+ *       --url http://localhost:8081/auth/login --method POST \
+ *       --body '{"email":"load@truerally.dev","password":"Secret123!"}' \
+ *       --concurrency 500 --seconds 60
+ * </pre>
+ */
+public final class HttpLoadDriver {
+
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    private HttpLoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        URI url = URI.create(opts.getOrDefault("url", "http://localhost:8081/auth/login"));
+        String method = opts.getOrDefault("method", "POST");
+        String body = opts.getOrDefault("body", "{\"email\":\"load@truerally.dev\",\"password\":\"Secret123!\"}");
+        int concurrency = Integer.parseInt(opts.getOrDefault("concurrency", "200"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "30"));
+        int warmupSeconds = Integer.parseInt(opts.getOrDefault("warmup", "10"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .header("Content-Type", "application/json")
+                .method(method, body.isEmpty() ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+
+        System.out.printf("target=%s %s concurrency=%d warmup=%ds measure=%ds%n", method, url, concurrency, warmupSeconds, seconds);
+        run(client, request, concurrency, warmupSeconds, null);
+        Stats stats = new Stats();
+        long elapsedNanos = run(client, request, concurrency, seconds, stats);
+        stats.print(elapsedNanos);
+    }
+
+    private static long run(HttpClient client, HttpRequest request, int concurrency, int seconds, Stats stats)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        if (stats != null) {
+                            stats.record(status, System.nanoTime() - sent);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return opts;
+    }
+
+    /** Millisecond-resolution latency histogram; lock-free so it does not become the bottleneck. */
+    private static final class Stats {
+        private final LongAdder[] histogram = new LongAdder[MAX_LATENCY_MS + 1];
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        Stats() {
+            Arrays.setAll(histogram, i -> new LongAdder());
+        }
+
+        void record(int status, long nanos) {
+            if (status >= 200 && status < 300) {
+                ok.increment();
+            } else if (status == 429 || status == 503) {
+                rejected.increment();
+            } else {
+                failed.increment();
+            }
+            histogram[(int) Math.min(nanos / 1_000_000, MAX_LATENCY_MS)].increment();
+            maxMicros.accumulateAndGet(nanos / 1_000, Math::max);
+        }
+
+        void print(long elapsedNanos) {
+            long total = ok.sum() + rejected.sum() + failed.sum();
+            double secs = elapsedNanos / 1e9;
+            System.out.printf("requests=%d ok=%d shed(429/503)=%d failed=%d throughput=%.1f req/s%n",
+                    total, ok.sum(), rejected.sum(), failed.sum(), total / secs);
+            System.out.printf("latency p50=%dms p90=%dms p99=%dms p99.9=%dms max=%.1fms%n",
+                    percentile(total, 0.50), percentile(total, 0.90), percentile(total, 0.99),
+                    percentile(total, 0.999), maxMicros.get() / 1000.0);
+        }
+
+        private int percentile(long total, double p) {
+            long target = (long) Math.ceil(total * p);
+            long seen = 0;
+            for (int ms = 0; ms < histogram.length; ms++) {
+                seen += histogram[ms].sum();
+                if (seen >= target) {
+                    return ms;
+                }
+            }
+            return MAX_LATENCY_MS;
+        }
+    }
+}
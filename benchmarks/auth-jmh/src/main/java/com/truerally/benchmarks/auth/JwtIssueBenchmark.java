@@ -0,0 +1,34 @@
+package com.truerally.benchmarks.auth;
+
+import com.truerally.auth.security.JwtKeyRing;
+import com.truerally.auth.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of minting an access token on login/refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtIssueBenchmark {
+
+    private JwtUtil jwtUtil;
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(JwtKeyRing.ephemeral(), 300_000, "truerally-auth");
+        claims = Map.of("email", "player@truerally.dev", "fullName", "Bench Player");
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken("3f1c9a52-7d1e-4f4b-9a57-2c1f3b0e8d11", claims);
+    }
+}
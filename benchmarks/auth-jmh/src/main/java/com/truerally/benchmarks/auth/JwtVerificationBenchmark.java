@@ -0,0 +1,54 @@
+package com.truerally.benchmarks.auth;
+
+import com.truerally.auth.security.JwtKeyRing;
+import com.truerally.auth.security.JwtPrincipal;
+import com.truerally.auth.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in JwtAuthFilter.
+ * <p>
+ * {@code legacyTwoPass} reproduces the old isValid + getSubject sequence,
+ * building a fresh parser and verifying the signature twice.
+ * {@code singlePass} is the current path: one verify on a shared parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    static final String ISSUER = "truerally-auth";
+
+    private JwtUtil jwtUtil;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing keyRing = JwtKeyRing.ephemeral();
+        jwtUtil = new JwtUtil(keyRing, 300_000, ISSUER);
+        key = keyRing.getPublicKey(keyRing.getActiveKid());
+        token = jwtUtil.generateAccessToken("3f1c9a52-7d1e-4f4b-9a57-2c1f3b0e8d11",
+                Map.of("email", "player@truerally.dev", "fullName", "Bench Player"));
+    }
+
+    @Benchmark
+    public String legacyTwoPass() {
+        Jwts.parserBuilder().setSigningKey(key).requireIssuer(ISSUER).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).requireIssuer(ISSUER).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public JwtPrincipal singlePass() {
+        return jwtUtil.verify(token);
+    }
+}
@@ -0,0 +1,63 @@
+package com.truerally.benchmarks.auth;
+
+import com.truerally.common.logging.CorrelationIdFilter;
+import com.truerally.common.logging.RequestLoggingFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.PassThroughFilterChain;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of the shared logging filters in front of every endpoint.
+ * The bundled logback.xml discards output so we measure the filters, not console I/O.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingFilterBenchmark {
+
+    private final CorrelationIdFilter correlationIdFilter = new CorrelationIdFilter();
+    private final RequestLoggingFilter requestLoggingFilter = new RequestLoggingFilter();
+
+    @Param({"true", "false"})
+    public boolean withCorrelationHeader;
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        if (withCorrelationHeader) {
+            request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, "bench-cid-0001");
+        }
+        return request;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse noFilters() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain().doFilter(request(), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse correlationId() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        correlationIdFilter.doFilter(request(), response, new MockFilterChain());
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse correlationIdAndRequestLogging() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new PassThroughFilterChain(requestLoggingFilter, new MockFilterChain());
+        correlationIdFilter.doFilter(request(), response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,65 @@
+package com.truerally.benchmarks.auth;
+
+import com.truerally.auth.config.LoginThrottleProperties;
+import com.truerally.auth.security.LoginThrottle;
+import com.truerally.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of the login throttle as threads are added. Run with a thread sweep to see
+ * the scaling, e.g. {@code java -jar benchmarks.jar LoginThrottleBenchmark -t 1} then
+ * {@code -t 4} and {@code -t 8}: per-account keys should scale close to linearly, the
+ * shared key shows the cost of CAS contention on one bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginThrottleBenchmark {
+
+    private LoginThrottle throttle;
+
+    @Setup
+    public void setup() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        // Effectively unlimited, so the benchmark measures the bookkeeping, not rejections
+        properties.setEmail(new LoginThrottleProperties.Limit(4_000, 6_000_000));
+        properties.setIp(new LoginThrottleProperties.Limit(4_000, 6_000_000));
+        throttle = new LoginThrottle(properties, new SimpleMeterRegistry());
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private static final AtomicInteger IDS = new AtomicInteger();
+        String email;
+        String ip;
+
+        @Setup
+        public void setup() {
+            int id = IDS.incrementAndGet();
+            email = "player" + id + "@truerally.dev";
+            ip = "10.0." + (id / 256) + "." + (id % 256);
+        }
+    }
+
+    @Benchmark
+    public void perAccount(Caller caller) {
+        throttle.acquire(caller.email, caller.ip);
+    }
+
+    @Benchmark
+    public boolean sharedAccount() {
+        try {
+            throttle.acquire("target@truerally.dev", null);
+            return true;
+        } catch (TooManyRequestsException e) {
+            return false;
+        }
+    }
+}
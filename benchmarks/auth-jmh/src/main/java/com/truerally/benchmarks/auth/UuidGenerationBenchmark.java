@@ -0,0 +1,38 @@
+package com.truerally.benchmarks.auth;
+
+import com.truerally.common.persistence.UuidV7;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Id generation cost: {@link UUID#randomUUID()} (SecureRandom) against the
+ * v7 generator (one CAS + ThreadLocalRandom). The 4-thread run shows how the
+ * shared sequence behaves under contention. Insert locality is measured
+ * against a real database by {@link UuidInsertDriver}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidGenerationBenchmark {
+
+    @Benchmark
+    public UUID randomV4() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrderedV7() {
+        return UuidV7.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID timeOrderedV7Contended() {
+        return UuidV7.next();
+    }
+}
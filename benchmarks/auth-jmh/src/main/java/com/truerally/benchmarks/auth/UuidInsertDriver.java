@@ -0,0 +1,125 @@
+package com.truerally.benchmarks.auth;
+
+import com.truerally.common.persistence.UuidV7;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserts the same number of rows into two identical scratch tables, one keyed
+ * by random v4 UUIDs and one by {@link UuidV7}, and reports insert throughput,
+ * WAL generated and primary key index size. Shaped like auth.user_tokens so the
+ * numbers carry over. Needs a Postgres 13+ reachable over JDBC:
+ * <pre>
+ *   java -cp benchmarks/auth-jmh/target/benchmarks.jar com.truerally.benchmarks.auth.UuidInsertDriver \
+ *       --url jdbc:postgresql://localhost:5432/truerally --user truerally_user --password securepassword \
+ *       --rows 2000000 --batch 500
+ * </pre>
+ * Tables live in a {@code bench} schema that is dropped afterwards.
+ */
+public final class UuidInsertDriver {
+
+    private UuidInsertDriver() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> opts = parse(args);
+        String url = opts.getOrDefault("url", "jdbc:postgresql://localhost:5432/truerally");
+        int rows = Integer.parseInt(opts.getOrDefault("rows", "1000000"));
+        int batch = Integer.parseInt(opts.getOrDefault("batch", "500"));
+
+        try (Connection connection = DriverManager.getConnection(url,
+                opts.getOrDefault("user", "truerally_user"), opts.getOrDefault("password", "securepassword"))) {
+            connection.setAutoCommit(false);
+            exec(connection, "CREATE SCHEMA IF NOT EXISTS bench");
+            try {
+                System.out.printf("rows=%d batch=%d%n", rows, batch);
+                run(connection, "ids_v4", UUID::randomUUID, rows, batch);
+                run(connection, "ids_v7", UuidV7::next, rows, batch);
+            } finally {
+                exec(connection, "DROP SCHEMA bench CASCADE");
+            }
+        }
+    }
+
+    private static void run(Connection connection, String table, Supplier<UUID> ids, int rows, int batch)
+            throws SQLException {
+        exec(connection, "DROP TABLE IF EXISTS bench." + table);
+        exec(connection, "CREATE TABLE bench." + table + " ("
+                + "id uuid PRIMARY KEY, token_hash bytea NOT NULL, type smallint NOT NULL, "
+                + "is_used boolean NOT NULL DEFAULT false, expires_at timestamp NOT NULL)");
+        checkpoint(connection);
+
+        long walBefore = walLsn(connection);
+        byte[] hash = new byte[32];
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench." + table
+                + " (id, token_hash, type, expires_at) VALUES (?, ?, 3, now() + interval '1 day')")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setBytes(2, hash);
+                insert.addBatch();
+                if (i % batch == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        long walBytes = walLsn(connection) - walBefore;
+
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT pg_relation_size('bench." + table + "_pkey'), "
+                     + "pg_relation_size('bench." + table + "')")) {
+            rs.next();
+            System.out.printf("%s inserts=%.0f rows/s wal=%.1f MB pkey=%.1f MB heap=%.1f MB%n",
+                    table, rows / secs, walBytes / 1e6, rs.getLong(1) / 1e6, rs.getLong(2) / 1e6);
+        }
+        connection.commit();
+    }
+
+    // Start both runs from a fresh checkpoint so full-page writes are counted alike
+    private static void checkpoint(Connection connection) {
+        try {
+            exec(connection, "CHECKPOINT");
+        } catch (SQLException e) {
+            System.out.println("CHECKPOINT not permitted for this user; WAL figures include prior activity");
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // connection is reported broken on the next statement
+            }
+        }
+    }
+
+    private static long walLsn(Connection connection) throws SQLException {
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT pg_current_wal_lsn() - '0/0'::pg_lsn")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void exec(Connection connection, String sql) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute(sql);
+        }
+        connection.commit();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return opts;
+    }
+}
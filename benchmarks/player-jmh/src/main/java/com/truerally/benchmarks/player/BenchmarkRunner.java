@@ -0,0 +1,32 @@
+package com.truerally.benchmarks.player;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code target/benchmarks.jar}.
+ * <p>
+ * Accepts the usual JMH command line and always attaches the GC profiler so
+ * every run reports allocation rate ({@code gc.alloc.rate.norm}) next to
+ * throughput and latency, e.g.
+ * <pre>
+ *   mvn -pl benchmarks/player-jmh -am package -DskipTests
+ *   java -jar benchmarks/player-jmh/target/benchmarks.jar MatchLineParser
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
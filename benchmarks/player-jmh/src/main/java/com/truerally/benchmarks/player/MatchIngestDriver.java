@@ -0,0 +1,175 @@
+package com.truerally.benchmarks.player;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams synthetic match results to {@code POST /matches/bulk} in one request and
+ * reports ingest throughput and the service's peak heap while it ran. The body is
+ * generated on the fly, so the driver itself holds no more than one line.
+ * <p>
+ * Player ids are {@code md5('player-' || i)}, so the players can be seeded
+ * directly before the service starts (the rating engine only accepts players it
+ * knows):
+ * <pre>
+ *   INSERT INTO player.profiles (user_id, full_name, city, country, registered_at, updated_at, last_event_id)
+ *   SELECT md5('player-' || i)::uuid, 'Player ' || i, 'Pune', 'IN', now(), now(), '00000000-0000-7000-8000-000000000000'
+ *   FROM generate_series(0, 9999) i;
+ *
+ *   java -cp benchmarks/player-jmh/target/benchmarks.jar com.truerally.benchmarks.player.MatchIngestDriver \
+ *       --url http://localhost:8082 --format csv --matches 1000000 --players 10000
+ * </pre>
+ */
+public final class MatchIngestDriver {
+
+    private static final Pattern METRIC_VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.E+-]+)");
+
+    private MatchIngestDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        String base = opts.getOrDefault("url", "http://localhost:8082");
+        String format = opts.getOrDefault("format", "csv");
+        long matches = Long.parseLong(opts.getOrDefault("matches", "1000000"));
+        int players = Integer.parseInt(opts.getOrDefault("players", "10000"));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        AtomicLong peakHeap = new AtomicLong();
+        Thread sampler = Thread.ofVirtual().start(() -> sampleHeap(client, base, peakHeap));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/matches/bulk"))
+                .header("Content-Type", format.equals("csv") ? "text/csv" : "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(
+                        () -> new SyntheticMatches(matches, players, format.equals("csv"))))
+                .timeout(Duration.ofHours(1))
+                .build();
+
+        System.out.printf("target=%s format=%s matches=%d players=%d%n", request.uri(), format, matches, players);
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        double secs = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+
+        String body = response.body();
+        System.out.printf("status=%d elapsed=%.1fs throughput=%.0f matches/s peak_heap=%dMB%n",
+                response.statusCode(), secs, matches / secs, peakHeap.get() >> 20);
+        System.out.println(body.length() > 400 ? body.substring(0, 400) + "..." : body);
+    }
+
+    /** Polls the service's heap gauge; the peak bounds what the upload cost in memory. */
+    private static void sampleHeap(HttpClient client, String base, AtomicLong peak) {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(base + "/actuator/metrics/jvm.memory.used?tag=area:heap")).build();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Matcher m = METRIC_VALUE.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+                if (m.find()) {
+                    peak.accumulateAndGet((long) Double.parseDouble(m.group(1)), Math::max);
+                }
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // Service busy or not exposing metrics; keep trying
+            }
+        }
+    }
+
+    /** Request body produced one line at a time, never held in full. */
+    private static final class SyntheticMatches extends InputStream {
+
+        private final long total;
+        private final boolean csv;
+        private final UUID[] players;
+        private final SplittableRandom random = new SplittableRandom(42);
+        private final Instant playedAt = Instant.parse("2026-05-01T10:15:30Z");
+        private byte[] line = new byte[0];
+        private int pos;
+        private long written;
+
+        SyntheticMatches(long total, int playerCount, boolean csv) {
+            this.total = total;
+            this.csv = csv;
+            this.players = new UUID[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                players[i] = md5Uuid("player-" + i);
+            }
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            int n = 0;
+            while (n < len) {
+                if (pos == line.length) {
+                    if (written == total) {
+                        break;
+                    }
+                    line = nextLine();
+                    pos = 0;
+                }
+                int chunk = Math.min(len - n, line.length - pos);
+                System.arraycopy(line, pos, b, off + n, chunk);
+                pos += chunk;
+                n += chunk;
+            }
+            return n == 0 && len > 0 ? -1 : n;
+        }
+
+        private byte[] nextLine() {
+            int w = random.nextInt(players.length);
+            int l = (w + 1 + random.nextInt(players.length - 1)) % players.length;
+            Instant at = playedAt.plusSeconds(written++);
+            String text = csv
+                    ? players[w] + "," + players[l] + "," + at + "\n"
+                    : "{\"winnerId\":\"" + players[w] + "\",\"loserId\":\"" + players[l] + "\",\"playedAt\":\"" + at + "\"}\n";
+            return text.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /** Same bytes as Postgres {@code md5(text)::uuid}. */
+    static UUID md5Uuid(String text) {
+        try {
+            byte[] d = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8));
+            long msb = 0;
+            long lsb = 0;
+            for (int i = 0; i < 8; i++) {
+                msb = (msb << 8) | (d[i] & 0xff);
+                lsb = (lsb << 8) | (d[i + 8] & 0xff);
+            }
+            return new UUID(msb, lsb);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return opts;
+    }
+}
@@ -0,0 +1,51 @@
+package com.truerally.benchmarks.player;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.truerally.player.repository.MatchResult;
+import com.truerally.player.service.MatchLineParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-line cost of mapping a bulk-upload line to a match result, CSV against
+ * NDJSON. At a million lines per upload this is the CPU budget of the ingest
+ * path apart from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchLineParserBenchmark {
+
+    private static final int LINES = 1024;
+
+    @Param({"CSV", "NDJSON"})
+    public MatchLineParser.Format format;
+
+    private MatchLineParser parser;
+    private String[] lines;
+    private int next;
+
+    @Setup
+    public void setup() {
+        parser = new MatchLineParser(new ObjectMapper().registerModule(new JavaTimeModule()));
+        lines = new String[LINES];
+        for (int i = 0; i < LINES; i++) {
+            UUID winner = UUID.randomUUID();
+            UUID loser = UUID.randomUUID();
+            lines[i] = format == MatchLineParser.Format.CSV
+                    ? winner + "," + loser + ",2026-05-01T10:15:30Z"
+                    : "{\"winnerId\":\"" + winner + "\",\"loserId\":\"" + loser + "\",\"playedAt\":\"2026-05-01T10:15:30Z\"}";
+        }
+    }
+
+    @Benchmark
+    public MatchResult parse() {
+        return parser.parse(lines[next++ & (LINES - 1)], format);
+    }
+}
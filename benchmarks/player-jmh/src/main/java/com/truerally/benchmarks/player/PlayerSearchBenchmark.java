@@ -0,0 +1,86 @@
+package com.truerally.benchmarks.player;
+
+import com.truerally.player.util.PrefixIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete latency of the player search index, by query shape, and the heap
+ * it takes per player. Setup indexes synthetic profiles drawn from common first
+ * names, surnames and cities, so posting lists are as skewed as real ones, and
+ * prints the index size measured across a full GC next to its own estimate, e.g.
+ * <pre>
+ *   java -jar benchmarks/player-jmh/target/benchmarks.jar PlayerSearch -p players=1000000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class PlayerSearchBenchmark {
+
+    private static final String[] FIRST = {"Aarav", "Aditi", "Aditya", "Ananya", "Anil", "Arjun", "Asha", "Deepak",
+            "Divya", "Ganesh", "Isha", "Karan", "Kavya", "Lakshmi", "Manoj", "Meera", "Neha", "Nikhil", "Pooja",
+            "Pranav", "Priya", "Rahul", "Rajesh", "Ravi", "Riya", "Rohan", "Sachin", "Sanjay", "Shreya", "Sneha",
+            "Suresh", "Tanvi", "Varun", "Venkatesh", "Vikram", "Vivek", "Yash", "Zoya"};
+    private static final String[] LAST = {"Agarwal", "Banerjee", "Bhat", "Chopra", "Das", "Deshpande", "Gupta",
+            "Iyer", "Jain", "Joshi", "Kapoor", "Khan", "Kulkarni", "Kumar", "Menon", "Mishra", "Nair", "Patel",
+            "Patil", "Pawar", "Pillai", "Rao", "Reddy", "Sharma", "Shetty", "Singh", "Subramanian", "Verma"};
+    private static final String[] CITIES = {"Ahmedabad", "Bengaluru", "Bhopal", "Chennai", "Coimbatore", "Delhi",
+            "Hyderabad", "Indore", "Jaipur", "Kochi", "Kolkata", "Lucknow", "Mumbai", "Mysuru", "Nagpur", "Nashik",
+            "Panaji", "Patna", "Pune", "Surat", "Thane", "Vadodara", "Visakhapatnam"};
+    private static final int LIMIT = 10;
+
+    @Param({"1000000"})
+    public int players;
+
+    /** One letter, a typed-out prefix, name plus city, a pincode prefix, a miss. */
+    @Param({"p", "pran", "priya pu", "priya patil nag", "4110", "qx"})
+    public String query;
+
+    private PrefixIndex index;
+
+    @Setup
+    public void setup() {
+        long before = usedHeap();
+        index = new PrefixIndex(players, 10_000);
+        Random random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            index.put(new UUID(random.nextLong(), random.nextLong()),
+                    pick(FIRST, random) + " " + pick(LAST, random), pick(CITIES, random), "IN",
+                    String.valueOf(110_000 + random.nextInt(750_000)));
+        }
+        index.trimToSize();
+        long buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long measured = usedHeap() - before;
+        System.out.printf("%nindex players=%d terms=%d buildMs=%d heapMb=%d estimateMb=%d bytesPerPlayer=%d%n",
+                index.size(), index.termCount(), buildMs, measured >> 20, index.memoryBytes() >> 20,
+                measured / players);
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Hit> search() {
+        return index.search(query, LIMIT);
+    }
+
+    /** Skewed towards the front of each list, like real name popularity. */
+    private static String pick(String[] values, Random random) {
+        double u = random.nextDouble();
+        return values[(int) (u * u * values.length)];
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
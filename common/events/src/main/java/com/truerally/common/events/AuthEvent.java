@@ -0,0 +1,26 @@
+package com.truerally.common.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Event published by auth-service on {@link #TOPIC}, keyed by the user ID so all
+ * of one user's events land on one partition in order.
+ * <p>
+ * The value is the JSON form of the record. Its type and schema version travel
+ * in the {@link AuthEventHeaders} so consumers can route or skip a record
+ * without parsing it. Within a schema version fields are only ever added, so
+ * consumers should ignore unknown properties.
+ */
+public sealed interface AuthEvent permits UserRegistered, UserVerified, SessionStarted, SessionRevoked {
+
+    String TOPIC = "truerally.auth.events";
+
+    UUID userId();
+
+    Instant occurredAt();
+
+    default AuthEventType type() {
+        return AuthEventType.of(this);
+    }
+}
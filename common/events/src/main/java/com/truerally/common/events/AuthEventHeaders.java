@@ -0,0 +1,15 @@
+package com.truerally.common.events;
+
+/** Kafka header names carried by every {@link AuthEvent} record. */
+public final class AuthEventHeaders {
+
+    /** Unique per event (UUIDv7); consumers de-duplicate redeliveries on it. */
+    public static final String EVENT_ID = "event-id";
+    /** {@link AuthEventType#wireName()}. */
+    public static final String EVENT_TYPE = "event-type";
+    /** {@link AuthEventType#schemaVersion()}, as a decimal string. */
+    public static final String SCHEMA_VERSION = "schema-version";
+
+    private AuthEventHeaders() {
+    }
+}
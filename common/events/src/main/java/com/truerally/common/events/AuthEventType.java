@@ -0,0 +1,53 @@
+package com.truerally.common.events;
+
+/**
+ * Wire name and current schema version of each {@link AuthEvent}. The wire name is
+ * what goes into the {@code event-type} header and never changes once published.
+ */
+public enum AuthEventType {
+    USER_REGISTERED("UserRegistered", 1, UserRegistered.class),
+    USER_VERIFIED("UserVerified", 1, UserVerified.class),
+    SESSION_STARTED("SessionStarted", 1, SessionStarted.class),
+    SESSION_REVOKED("SessionRevoked", 1, SessionRevoked.class);
+
+    private final String wireName;
+    private final int schemaVersion;
+    private final Class<? extends AuthEvent> eventClass;
+
+    AuthEventType(String wireName, int schemaVersion, Class<? extends AuthEvent> eventClass) {
+        this.wireName = wireName;
+        this.schemaVersion = schemaVersion;
+        this.eventClass = eventClass;
+    }
+
+    public String wireName() {
+        return wireName;
+    }
+
+    public int schemaVersion() {
+        return schemaVersion;
+    }
+
+    public Class<? extends AuthEvent> eventClass() {
+        return eventClass;
+    }
+
+    static AuthEventType of(AuthEvent event) {
+        return switch (event) {
+            case UserRegistered e -> USER_REGISTERED;
+            case UserVerified e -> USER_VERIFIED;
+            case SessionStarted e -> SESSION_STARTED;
+            case SessionRevoked e -> SESSION_REVOKED;
+        };
+    }
+
+    /** Looks up a header value; null for types this build does not know yet. */
+    public static AuthEventType fromWireName(String wireName) {
+        for (AuthEventType type : values()) {
+            if (type.wireName.equals(wireName)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
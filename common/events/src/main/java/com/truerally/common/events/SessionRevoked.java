@@ -0,0 +1,14 @@
+package com.truerally.common.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The user logged out. {@code tokenId} is the {@code jti} of the access token sent
+ * with the logout (null if none was) and must be rejected until {@code expiresAt}.
+ */
+public record SessionRevoked(UUID userId,
+                             String tokenId,
+                             Instant expiresAt,
+                             Instant occurredAt) implements AuthEvent {
+}
@@ -0,0 +1,18 @@
+package com.truerally.common.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An access token was issued, on login or on refresh.
+ *
+ * @param tokenId   the access token's {@code jti}
+ * @param expiresAt the access token's {@code exp}
+ * @param refreshed false for a password login, true for a refresh-token exchange
+ */
+public record SessionStarted(UUID userId,
+                             String tokenId,
+                             Instant expiresAt,
+                             boolean refreshed,
+                             Instant occurredAt) implements AuthEvent {
+}
@@ -0,0 +1,17 @@
+package com.truerally.common.events;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/** A new account; carries the profile fields captured at sign-up. */
+public record UserRegistered(UUID userId,
+                             String email,
+                             String fullName,
+                             LocalDate dateOfBirth,
+                             String gender,
+                             String city,
+                             String country,
+                             String pincode,
+                             Instant occurredAt) implements AuthEvent {
+}
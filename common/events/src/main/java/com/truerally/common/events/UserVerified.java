@@ -0,0 +1,8 @@
+package com.truerally.common.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** The user confirmed their email address. */
+public record UserVerified(UUID userId, Instant occurredAt) implements AuthEvent {
+}
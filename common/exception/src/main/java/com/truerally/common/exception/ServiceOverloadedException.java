@@ -0,0 +1,18 @@
+package com.truerally.common.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the request is shed instead of queued.
+ * Rendered as 503 with a Retry-After header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
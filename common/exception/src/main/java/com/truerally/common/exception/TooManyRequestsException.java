@@ -0,0 +1,18 @@
+package com.truerally.common.exception;
+
+/**
+ * Thrown when a caller has exceeded its request allowance (rate limit, brute-force throttle).
+ * Rendered as 429 with a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,96 @@
+package com.truerally.common.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events in-process and turns them into
+ * metrics, so carrier-thread pinning (a virtual thread blocking inside a
+ * {@code synchronized} block, e.g. in a JDBC driver or Hibernate) shows up on the
+ * dashboards. Only active when {@code spring.threads.virtual.enabled=true}.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    // Frames are attributed to the first library we recognise, innermost first
+    private static final List<String> SOURCES = List.of(
+            "org.postgresql", "org.hibernate", "com.zaxxer.hikari", "jakarta.mail", "org.eclipse.angus",
+            "org.apache.kafka", "ch.qos.logback", "com.truerally");
+
+    private final MeterRegistry registry;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry,
+                                       @Value("${observability.virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        this.registry = registry;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::record);
+        stream.startAsync();
+        log.info("event=vthread_pinning_monitor_started thresholdMs={}", threshold.toMillis());
+    }
+
+    private void record(RecordedEvent event) {
+        String source = sourceOf(event);
+        Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .tag("source", source)
+                .register(registry)
+                .increment();
+        Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("How long a virtual thread stayed pinned")
+                .tag("source", source)
+                .register(registry)
+                .record(event.getDuration());
+        if (log.isDebugEnabled()) {
+            log.debug("event=vthread_pinned source={} durationMs={} stack={}",
+                    source, event.getDuration().toMillis(), event.getStackTrace());
+        }
+    }
+
+    private static String sourceOf(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            for (String source : SOURCES) {
+                if (type.startsWith(source)) {
+                    return source;
+                }
+            }
+        }
+        return "other";
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
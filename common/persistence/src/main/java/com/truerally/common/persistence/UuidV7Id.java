@@ -0,0 +1,24 @@
+package com.truerally.common.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the annotated id with {@link UuidV7#next()}.
+ * <pre>
+ *   &#64;Id &#64;UuidV7Id
+ *   &#64;Column(columnDefinition = "uuid", updatable = false, nullable = false)
+ *   private UUID id;
+ * </pre>
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7Id {
+}
@@ -0,0 +1,73 @@
+package com.truerally.common.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void carriesVersionVariantAndTimestamp() {
+        long now = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(UuidV7.timestamp(id) >= now);
+        assertTrue(UuidV7.timestamp(id) - now < 1_000);
+    }
+
+    @Test
+    void idsSortInGenerationOrderEvenWithinOneMillisecond() {
+        long frozen = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) { // more than the 4096-per-ms sequence
+            ids.add(UuidV7.next(frozen));
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            // Postgres compares uuids as unsigned bytes; the top bit is clear until year 10889
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, "out of order at " + i);
+        }
+        // never behind the clock; ahead of it if an earlier test already ran this millisecond
+        assertTrue(UuidV7.timestamp(ids.get(0)) >= frozen);
+    }
+
+    @Test
+    void idsFromAnotherClockSortByMicrosecond() {
+        long micros = 1_760_000_000_123_456L;
+        UUID earlier = UuidV7.at(micros);
+        UUID later = UuidV7.at(micros + 1);
+
+        assertEquals(7, earlier.version());
+        assertEquals(2, earlier.variant());
+        assertEquals(micros / 1000, UuidV7.timestamp(earlier));
+        assertTrue(earlier.compareTo(later) < 0);
+        assertTrue(UuidV7.at(1_760_000_000_123_999L).compareTo(UuidV7.at(1_760_000_000_124_000L)) < 0);
+    }
+
+    @Test
+    void concurrentCallersNeverCollide() throws Exception {
+        ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        ids.add(UuidV7.next());
+                    }
+                });
+            }
+        }
+        Set<UUID> unique = new HashSet<>(ids);
+        assertEquals(160_000, unique.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.truerally.common.security;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conversion between EC P-256 public keys and their JWK (RFC 7517/7518) form.
+ * Shared by the issuer (auth-service publishes its JWKS) and every verifier.
+ */
+public final class Jwks {
+
+    public static final String CURVE = "P-256";
+    public static final String ALGORITHM = "ES256";
+
+    private static final int COORDINATE_BYTES = 32;
+    private static final ECParameterSpec P256 = p256();
+
+    private Jwks() {
+    }
+
+    public static Map<String, Object> toJwk(String kid, ECPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", CURVE);
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("x", encodeCoordinate(key.getW().getAffineX()));
+        jwk.put("y", encodeCoordinate(key.getW().getAffineY()));
+        return jwk;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the JWK is not an EC P-256 key
+     */
+    public static PublicKey fromJwk(Map<String, ?> jwk) {
+        if (!"EC".equals(jwk.get("kty")) || !CURVE.equals(jwk.get("crv"))) {
+            throw new IllegalArgumentException("Unsupported JWK: kty=" + jwk.get("kty") + " crv=" + jwk.get("crv"));
+        }
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        BigInteger x = new BigInteger(1, decoder.decode((String) jwk.get("x")));
+        BigInteger y = new BigInteger(1, decoder.decode((String) jwk.get("y")));
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(new ECPoint(x, y), P256));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid EC JWK " + jwk.get("kid"), e);
+        }
+    }
+
+    private static String encodeCoordinate(BigInteger value) {
+        // Fixed-width, unsigned big-endian as required by RFC 7518 §6.2.1.2
+        byte[] raw = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int copy = Math.min(raw.length, COORDINATE_BYTES);
+        System.arraycopy(raw, raw.length - copy, fixed, COORDINATE_BYTES - copy, copy);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters params = AlgorithmParameters.getInstance("EC");
+            params.init(new ECGenParameterSpec("secp256r1"));
+            return params.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("secp256r1 not supported by this JVM", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.truerally.common.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locally cached copy of the issuer's JWKS.
+ * <p>
+ * The key set is fetched once on {@link #start()} and then refreshed in the
+ * background, so token verification never makes a network call on the request
+ * path. An unknown {@code kid} (a freshly rotated key) triggers at most one
+ * on-demand refresh per {@code minRefreshInterval}.
+ */
+public class JwksKeySet implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeySet.class);
+
+    private final URI jwksUri;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastFetchNanos;
+
+    public JwksKeySet(URI jwksUri, Duration refreshInterval, Duration minRefreshInterval, ObjectMapper mapper) {
+        this.jwksUri = jwksUri;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        this.mapper = mapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwks-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() {
+        refresh();
+        long periodMs = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the key for {@code kid}, or {@code null} if the issuer does not publish it
+     */
+    public PublicKey resolve(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null && System.nanoTime() - lastFetchNanos >= minRefreshInterval.toNanos()) {
+            synchronized (this) {
+                key = keys.get(kid);
+                if (key == null && System.nanoTime() - lastFetchNanos >= minRefreshInterval.toNanos()) {
+                    refresh();
+                    key = keys.get(kid);
+                }
+            }
+        }
+        return key;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    synchronized void refresh() {
+        lastFetchNanos = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(jwksUri)
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("event=jwks_refresh_failed uri={} status={}", jwksUri, response.statusCode());
+                return;
+            }
+            Map<String, List<Map<String, Object>>> document =
+                    mapper.readValue(response.body(), new TypeReference<>() {});
+            Map<String, PublicKey> fresh = new HashMap<>();
+            for (Map<String, Object> jwk : document.getOrDefault("keys", List.of())) {
+                try {
+                    fresh.put((String) jwk.get("kid"), Jwks.fromJwk(jwk));
+                } catch (IllegalArgumentException e) {
+                    log.warn("event=jwks_key_skipped kid={} reason={}", jwk.get("kid"), e.getMessage());
+                }
+            }
+            // Keep the previous set if the issuer briefly serves an empty document
+            if (!fresh.isEmpty()) {
+                keys = Map.copyOf(fresh);
+            }
+            log.debug("event=jwks_refreshed uri={} keys={}", jwksUri, fresh.keySet());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("event=jwks_refresh_failed uri={} error={}", jwksUri, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,43 @@
+package com.truerally.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.security.Key;
+
+/**
+ * Verifies auth-service access tokens locally against a cached {@link JwksKeySet}.
+ * The parser is built once and is safe to share across threads.
+ */
+public class JwksTokenVerifier {
+
+    private final JwtParser parser;
+
+    public JwksTokenVerifier(JwksKeySet keySet, String issuer) {
+        this.parser = Jwts.parserBuilder()
+                .requireIssuer(issuer)
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String kid = header.getKeyId();
+                        Key key = kid != null ? keySet.resolve(kid) : null;
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, expired or not signed by a published key
+     */
+    public Claims verify(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+}
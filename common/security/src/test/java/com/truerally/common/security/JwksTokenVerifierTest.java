@@ -0,0 +1,123 @@
+package com.truerally.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksTokenVerifierTest {
+
+    private static final String ISSUER = "truerally-auth";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicReference<String> jwksBody = new AtomicReference<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private HttpServer server;
+    private JwksKeySet keySet;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            byte[] body = jwksBody.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (keySet != null) {
+            keySet.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void verifiesLocallyAfterSingleFetch() throws Exception {
+        KeyPair pair = newKeyPair();
+        publish(Map.of("k1", pair));
+        JwksTokenVerifier verifier = newVerifier(Duration.ofHours(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("user-1", verifier.verify(sign("k1", pair)).getSubject());
+        }
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void picksUpRotatedKeyOnUnknownKid() throws Exception {
+        KeyPair oldPair = newKeyPair();
+        KeyPair newPair = newKeyPair();
+        publish(Map.of("k1", oldPair));
+        JwksTokenVerifier verifier = newVerifier(Duration.ZERO);
+
+        publish(Map.of("k1", oldPair, "k2", newPair));
+        assertEquals("user-1", verifier.verify(sign("k2", newPair)).getSubject());
+        assertEquals("user-1", verifier.verify(sign("k1", oldPair)).getSubject());
+    }
+
+    @Test
+    void rejectsTokenSignedByUnpublishedKey() throws Exception {
+        publish(Map.of("k1", newKeyPair()));
+        JwksTokenVerifier verifier = newVerifier(Duration.ofHours(1));
+
+        assertThrows(JwtException.class, () -> verifier.verify(sign("k1", newKeyPair())));
+        assertThrows(JwtException.class, () -> verifier.verify(sign("unknown", newKeyPair())));
+    }
+
+    private JwksTokenVerifier newVerifier(Duration minRefresh) {
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/.well-known/jwks.json");
+        keySet = new JwksKeySet(uri, Duration.ofHours(1), minRefresh, mapper);
+        keySet.start();
+        return new JwksTokenVerifier(keySet, ISSUER);
+    }
+
+    private void publish(Map<String, KeyPair> pairs) throws Exception {
+        List<Map<String, Object>> keys = pairs.entrySet().stream()
+                .map(e -> Jwks.toJwk(e.getKey(), (ECPublicKey) e.getValue().getPublic()))
+                .toList();
+        jwksBody.set(mapper.writeValueAsString(Map.of("keys", keys)));
+    }
+
+    private static String sign(String kid, KeyPair pair) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setSubject("user-1")
+                .setIssuer(ISSUER)
+                .setExpiration(new Date(now + 60_000))
+                .signWith(pair.getPrivate(), SignatureAlgorithm.ES256)
+                .compact();
+    }
+
+    private static KeyPair newKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,41 @@
+package com.truerally.auth.config;
+
+import com.truerally.common.events.AuthEvent;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+@EnableConfigurationProperties(AuthEventProperties.class)
+public class AuthEventConfig {
+
+    @Bean
+    public NewTopic authEventsTopic(AuthEventProperties properties) {
+        return TopicBuilder.name(AuthEvent.TOPIC)
+                .partitions(properties.getTopic().getPartitions())
+                .replicas(properties.getTopic().getReplicas())
+                .build();
+    }
+
+    /**
+     * Batch listener for the per-replica event consumer. Every replica reads the
+     * whole topic in its own group and seeks by timestamp on startup, so offsets
+     * are never committed.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> replicaEventListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
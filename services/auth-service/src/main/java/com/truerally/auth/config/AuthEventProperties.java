@@ -0,0 +1,32 @@
+package com.truerally.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "auth-events")
+@Getter
+@Setter
+public class AuthEventProperties {
+
+    private Relay relay = new Relay();
+    private Topic topic = new Topic();
+
+    @Getter
+    @Setter
+    public static class Relay {
+        private boolean enabled = true;
+        private int batchSize = 500;
+        private long pollIntervalMs = 200;
+        private long sendTimeoutMs = 10_000;    // broker acks for a whole batch; rows stay in the outbox on timeout
+        private long leaseMs = 30_000;          // relay lease; must outlast send-timeout-ms
+        private long depthRefreshMs = 15_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Topic {
+        private int partitions = 6;
+        private short replicas = 1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.truerally.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "registration.email-filter")
+@Getter
+@Setter
+public class EmailFilterProperties {
+    private boolean enabled = true;
+    private long expectedUsers = 1_000_000;      // size for this many emails; beyond it the FP rate climbs
+    private double falsePositiveRate = 0.01;
+    private int loadFetchSize = 10_000;          // rows per round trip while streaming users.email
+}
@@ -0,0 +1,36 @@
+package com.truerally.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ES256 signing keys. Every listed key is published in the JWKS; only
+ * {@code active-kid} signs new tokens. To rotate: add the new key, deploy,
+ * wait for verifiers to pick it up, switch {@code active-kid}, and drop the
+ * old key once its last tokens have expired.
+ */
+@ConfigurationProperties(prefix = "jwt.signing")
+@Getter
+@Setter
+public class JwtKeyProperties {
+    private String activeKid;
+    private List<SigningKey> keys = new ArrayList<>();
+    /**
+     * With no keys configured, sign with a key generated at startup. Only for dev
+     * and tests: each process gets its own key, so replicas reject each other's
+     * tokens and a restart ends every session.
+     */
+    private boolean allowEphemeralKey = false;
+
+    @Getter
+    @Setter
+    public static class SigningKey {
+        private String kid;
+        private String privateKey; // base64 PKCS#8 DER, omit for retired (verify-only) keys
+        private String publicKey;  // base64 X.509 SubjectPublicKeyInfo DER
+    }
+}
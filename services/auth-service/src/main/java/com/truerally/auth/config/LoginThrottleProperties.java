@@ -0,0 +1,32 @@
+package com.truerally.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "security.login-throttle")
+@Getter
+@Setter
+public class LoginThrottleProperties {
+    private boolean enabled = true;
+    private Limit email = new Limit(10, 5);     // per account: burst of 10, then 5 attempts/minute
+    private Limit ip = new Limit(60, 30);       // per client address
+    private int maxEntries = 200_000;           // buckets kept in memory across both key kinds
+    private long sweepIntervalMs = 60_000;      // how often idle (fully refilled) buckets are dropped
+    private int overflowStripes = 4096;         // shared buckets per key kind once max-entries is reached
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity;
+        private int refillPerMinute;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.truerally.auth.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@EnableConfigurationProperties(MailOutboxProperties.class)
+public class MailOutboxConfig {
+
+    /**
+     * Workers that talk SMTP. Kept off the request threads; the dispatcher never
+     * claims more than one batch at a time, so the queue stays within batch-size.
+     * In virtual-thread mode each send gets its own virtual thread, still capped
+     * at {@code mail.outbox.workers} concurrent sends.
+     */
+    @Bean
+    public TaskExecutor mailExecutor(MailOutboxProperties properties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mail-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(properties.getWorkers());
+            executor.setTaskTerminationTimeout(30_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getWorkers());
+        executor.setMaxPoolSize(properties.getWorkers());
+        executor.setQueueCapacity(properties.getBatchSize());
+        executor.setThreadNamePrefix("mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
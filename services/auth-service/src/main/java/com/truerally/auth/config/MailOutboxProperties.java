@@ -0,0 +1,18 @@
+package com.truerally.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "mail.outbox")
+@Getter
+@Setter
+public class MailOutboxProperties {
+    private int batchSize = 50;
+    private long pollIntervalMs = 1000;
+    private int workers = 4;
+    private int maxAttempts = 8;
+    private long initialBackoffMs = 5_000;
+    private long maxBackoffMs = 3_600_000;
+    private long leaseMs = 300_000;      // how long a claimed batch is hidden from other replicas
+}
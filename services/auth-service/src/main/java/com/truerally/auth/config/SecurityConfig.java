@@ -1,16 +1,27 @@
 package com.truerally.auth.config;
 
+import com.truerally.auth.security.BoundedPasswordEncoder;
 import com.truerally.auth.security.JwtAuthFilter;
 import com.truerally.auth.security.JwtAuthenticationEntryPoint;
+import com.truerally.auth.security.PasswordHashCalibrator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
+@EnableConfigurationProperties(JwtKeyProperties.class)
 public class SecurityConfig {
 
     @Bean
@@ -19,7 +30,7 @@ public class SecurityConfig {
                                                    JwtAuthenticationEntryPoint entryPoint) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**", "/actuator/**").permitAll()
+                        .requestMatchers("/auth/**", "/actuator/**", "/.well-known/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .exceptionHandling(ex -> ex
@@ -31,8 +42,51 @@ public class SecurityConfig {
     }
 
 
-    @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt at a work factor calibrated for this machine (or pinned with
+     * security.password.bcrypt-strength), behind a bounded, CPU-sized executor so
+     * hashing bursts are shed with 503 instead of tying up every request thread.
+     * Hashes are written as {bcrypt}...; legacy unprefixed hashes still match and
+     * report upgradeEncoding() so login can rehash them, unless that would lower
+     * their work factor.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:0}") int pinnedStrength,
+                                           @Value("${security.password.target-hash-ms:250}") long targetHashMs,
+                                           @Value("${security.password.min-strength:10}") int minStrength,
+                                           @Value("${security.password.max-strength:14}") int maxStrength,
+                                           @Value("${security.password.hashing.threads:0}") int threads,
+                                           @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${security.password.hashing.max-wait-ms:2000}") long maxWaitMs,
+                                           MeterRegistry registry) {
+        int strength = pinnedStrength > 0
+                ? pinnedStrength
+                : PasswordHashCalibrator.calibrateBCrypt(targetHashMs, minStrength, maxStrength);
+        Gauge.builder("auth.password.bcrypt.strength", () -> strength)
+                .description("BCrypt work factor used for new hashes")
+                .register(registry);
+
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(bcryptEncoder(strength), workers, queueCapacity, maxWaitMs, registry);
+    }
+
+    /**
+     * {bcrypt}-prefixed BCrypt at {@code strength}. upgradeEncoding() only asks for a
+     * rehash that raises the work factor: a stored hash at a higher cost (say from a
+     * faster machine's calibration) is kept, prefixed or not.
+     */
+    public static PasswordEncoder bcryptEncoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt)) {
+            @Override
+            public boolean upgradeEncoding(String prefixEncodedPassword) {
+                if (prefixEncodedPassword != null && !prefixEncodedPassword.startsWith("{")) {
+                    return bcrypt.upgradeEncoding(prefixEncodedPassword); // legacy, unprefixed BCrypt
+                }
+                return super.upgradeEncoding(prefixEncodedPassword);
+            }
+        };
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return delegating;
     }
 }
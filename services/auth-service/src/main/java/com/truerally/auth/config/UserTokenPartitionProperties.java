@@ -0,0 +1,14 @@
+package com.truerally.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "user-tokens.partitions")
+@Getter
+@Setter
+public class UserTokenPartitionProperties {
+    private int precreateDays = 7;              // must exceed the longest token validity
+    private long maintenanceIntervalMs = 3_600_000;
+    private long lockTimeoutMs = 2_000;
+}
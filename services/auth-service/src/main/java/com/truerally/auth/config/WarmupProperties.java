@@ -0,0 +1,16 @@
+package com.truerally.auth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "warmup")
+@Getter
+@Setter
+public class WarmupProperties {
+    private boolean enabled = true;
+    private long maxDurationMs = 15_000;
+    private long minDurationMs = 2_000;
+    private int quietRounds = 3;
+    private long quietCompileMs = 20;    // JIT time per round below which the round counts as quiet
+}
@@ -3,11 +3,15 @@ package com.truerally.auth.controller;
 import com.truerally.auth.dto.*;
 import com.truerally.auth.dto.PublicLoginResponse;
 import com.truerally.auth.exception.InvalidTokenException;
+import com.truerally.auth.security.JwtPrincipal;
+import com.truerally.auth.security.LoginThrottle;
 import com.truerally.auth.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -17,6 +21,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/register")
     public ResponseEntity<RegisterResponse> register(@Valid @RequestBody RegisterRequest request) {
@@ -31,7 +36,10 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<PublicLoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<PublicLoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                                     HttpServletRequest httpRequest) {
+        // Throttle before any DB lookup or BCrypt work; 429 with Retry-After when exhausted
+        loginThrottle.acquire(request.getEmail(), httpRequest.getRemoteAddr());
         LoginResponse response = authService.login(request);
 
         // Create refresh token cookie
@@ -69,12 +77,15 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<LogoutResponse> logout(@CookieValue(value = "refreshToken", required = false) String refreshToken) {
+    public ResponseEntity<LogoutResponse> logout(@CookieValue(value = "refreshToken", required = false) String refreshToken,
+                                                 Authentication authentication) {
         if (refreshToken == null) {
             throw new InvalidTokenException("Missing refresh token");
         }
 
-        LogoutResponse response = authService.logout(new LogoutRequest(refreshToken));
+        // JwtAuthFilter leaves the verified bearer token in the details when one was sent
+        JwtPrincipal accessToken = authentication != null && authentication.getDetails() instanceof JwtPrincipal p ? p : null;
+        LogoutResponse response = authService.logout(new LogoutRequest(refreshToken, accessToken));
 
         // Expire the cookie on client side
         ResponseCookie deleteCookie = ResponseCookie.from("refreshToken", "")
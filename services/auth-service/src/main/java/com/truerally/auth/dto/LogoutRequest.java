@@ -1,5 +1,6 @@
 package com.truerally.auth.dto;
 
+import com.truerally.auth.security.JwtPrincipal;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,7 +11,15 @@ public class LogoutRequest {
     @NotBlank(message = "Refresh token is required")
     private String refreshToken;
 
+    // Bearer token sent with the logout, if any; revoked along with the refresh token
+    private JwtPrincipal accessToken;
+
     public LogoutRequest(String refreshToken) {
         this.refreshToken = refreshToken;
     }
+
+    public LogoutRequest(String refreshToken, JwtPrincipal accessToken) {
+        this.refreshToken = refreshToken;
+        this.accessToken = accessToken;
+    }
 }
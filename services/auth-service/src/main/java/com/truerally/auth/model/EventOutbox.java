@@ -0,0 +1,44 @@
+package com.truerally.auth.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Serialized auth event written in the same transaction as the change it
+ * describes and published to Kafka later by {@code AuthEventRelay}. The id is
+ * the event id; {@code AuthEventPublisher} assigns it, and rows are only ever
+ * inserted, so {@link #isNew()} keeps {@code save} from merging.
+ */
+@Entity
+@Table(name = "event_outbox", schema = "auth")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class EventOutbox implements Persistable<UUID> {
+
+    @Id
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String eventType;
+
+    @Column(name = "schema_version", nullable = false)
+    private short schemaVersion;
+
+    @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
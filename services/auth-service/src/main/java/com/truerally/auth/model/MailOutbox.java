@@ -0,0 +1,60 @@
+package com.truerally.auth.model;
+
+import com.truerally.common.persistence.UuidV7Id;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outgoing email written in the same transaction as the change that triggers it
+ * and delivered later by {@code MailOutboxDispatcher}.
+ */
+@Entity
+@Table(name = "mail_outbox", schema = "auth",
+        indexes = @Index(name = "idx_mail_outbox_pending", columnList = "status, next_attempt_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class MailOutbox {
+
+    @Id
+    @UuidV7Id
+    @Column(columnDefinition = "uuid", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "html_body", nullable = false, columnDefinition = "text")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public static MailOutbox pending(String recipient, String subject, String htmlBody) {
+        MailOutbox mail = new MailOutbox();
+        mail.setRecipient(recipient);
+        mail.setSubject(subject);
+        mail.setHtmlBody(htmlBody);
+        return mail;
+    }
+}
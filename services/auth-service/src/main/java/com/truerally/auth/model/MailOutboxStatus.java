@@ -0,0 +1,7 @@
+package com.truerally.auth.model;
+
+public enum MailOutboxStatus {
+    PENDING,
+    SENT,
+    DEAD   // gave up after max attempts
+}
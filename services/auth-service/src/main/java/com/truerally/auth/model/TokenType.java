@@ -0,0 +1,30 @@
+package com.truerally.auth.model;
+
+/**
+ * Purpose of a {@link UserToken}. Stored as a smallint code; codes are part of
+ * the schema and must never be reused or renumbered.
+ */
+public enum TokenType {
+    VERIFICATION((short) 1),
+    RESET_PASSWORD((short) 2),
+    REFRESH((short) 3);
+
+    private final short code;
+
+    TokenType(short code) {
+        this.code = code;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public static TokenType fromCode(short code) {
+        for (TokenType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown token type code: " + code);
+    }
+}
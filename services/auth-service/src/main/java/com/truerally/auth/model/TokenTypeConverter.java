@@ -0,0 +1,18 @@
+package com.truerally.auth.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class TokenTypeConverter implements AttributeConverter<TokenType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TokenType type) {
+        return type != null ? type.getCode() : null;
+    }
+
+    @Override
+    public TokenType convertToEntityAttribute(Short code) {
+        return code != null ? TokenType.fromCode(code) : null;
+    }
+}
@@ -1,30 +1,33 @@
 package com.truerally.auth.model;
 
+import com.truerally.common.persistence.UuidV7Id;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.DynamicUpdate;
-import org.hibernate.annotations.GenericGenerator;
 import org.springframework.data.annotation.CreatedDate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "user_tokens", schema = "auth")
+// Range-partitioned by day on expires_at (V3 migration); unique keys must include it
+@Table(name = "user_tokens", schema = "auth",
+        indexes = @Index(name = "ux_user_tokens_hash_type", columnList = "token_hash, type, expires_at", unique = true))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 @DynamicUpdate
 public class UserToken {
 
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7Id
     @Column(columnDefinition = "uuid", updatable = false, nullable = false)
     private UUID id;
 
-    @Column(unique = true, nullable = false)
-    private String token;
+    // SHA-256 of the token handed to the client; the raw value is never stored
+    @Column(name = "token_hash", nullable = false, updatable = false, columnDefinition = "bytea")
+    private byte[] tokenHash;
 
-    private String type; // VERIFICATION / RESET_PASSWORD / REFRESH
+    @Column(nullable = false, columnDefinition = "smallint")
+    private TokenType type;
 
     private boolean isUsed = false;
 
@@ -0,0 +1,59 @@
+package com.truerally.auth.repository;
+
+import com.truerally.auth.model.EventOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EventOutboxRepository extends JpaRepository<EventOutbox, UUID> {
+
+    /**
+     * Serialises event writers for one user until the transaction ends and returns
+     * the database clock, read once the lock is held, in Unix microseconds. An id
+     * made from it sorts after every event already committed for the user, on any
+     * replica.
+     */
+    @Query(value = """
+            SELECT (extract(epoch FROM clock_timestamp()) * 1000000)::bigint
+            FROM pg_advisory_xact_lock(hashtext(CAST(:userId AS text)))
+            """, nativeQuery = true)
+    long lockUserEvents(@Param("userId") UUID userId);
+
+    /**
+     * Takes or renews the relay lease for {@code leaseMs}. Only one replica relays
+     * at a time, so rows go out in {@link #findOldest} order.
+     * Uses the database clock, so replicas need not agree on the time.
+     *
+     * @return 1 if this holder now has the lease, 0 if another replica does
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE auth.event_relay_lease
+            SET holder = :holder, leased_until = now() + :leaseMs * interval '1 millisecond'
+            WHERE name = 'auth_event_relay' AND (holder = :holder OR leased_until <= now())
+            """, nativeQuery = true)
+    int tryLease(@Param("holder") UUID holder, @Param("leaseMs") long leaseMs);
+
+    @Modifying
+    @Query(value = """
+            UPDATE auth.event_relay_lease SET leased_until = '-infinity'
+            WHERE name = 'auth_event_relay' AND holder = :holder
+            """, nativeQuery = true)
+    int releaseLease(@Param("holder") UUID holder);
+
+    // Ids of one user's events increase in commit order (see AuthEventPublisher)
+    @Query(value = "SELECT * FROM auth.event_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<EventOutbox> findOldest(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM auth.event_outbox WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
+
+    @Query(value = "SELECT count(*) FROM auth.event_outbox", nativeQuery = true)
+    long countPending();
+}
@@ -0,0 +1,65 @@
+package com.truerally.auth.repository;
+
+import com.truerally.auth.model.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+
+    /**
+     * Claims up to {@code limit} due messages in one statement by pushing their
+     * next attempt out to {@code leaseUntil}. SKIP LOCKED lets several replicas
+     * drain the outbox concurrently without handing out the same row twice.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE auth.mail_outbox SET next_attempt_at = :leaseUntil
+            WHERE id IN (
+                SELECT id FROM auth.mail_outbox
+                WHERE status = 'PENDING' AND next_attempt_at <= :now
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<MailOutbox> claimBatch(@Param("now") LocalDateTime now,
+                                @Param("leaseUntil") LocalDateTime leaseUntil,
+                                @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE auth.mail_outbox
+            SET status = 'SENT', attempts = attempts + 1, sent_at = :sentAt, last_error = NULL
+            WHERE id = :id
+            """, nativeQuery = true)
+    int markSent(@Param("id") UUID id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE auth.mail_outbox
+            SET attempts = attempts + 1, next_attempt_at = :nextAttemptAt, last_error = :error
+            WHERE id = :id
+            """, nativeQuery = true)
+    int markRetry(@Param("id") UUID id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE auth.mail_outbox
+            SET status = 'DEAD', attempts = attempts + 1, last_error = :error
+            WHERE id = :id
+            """, nativeQuery = true)
+    int markDead(@Param("id") UUID id, @Param("error") String error);
+
+    @Query(value = "SELECT count(*) FROM auth.mail_outbox WHERE status = 'PENDING'", nativeQuery = true)
+    long countPending();
+}
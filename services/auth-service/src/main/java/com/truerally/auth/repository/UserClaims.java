@@ -0,0 +1,23 @@
+package com.truerally.auth.repository;
+
+import com.truerally.auth.model.User;
+
+import java.util.Map;
+
+/**
+ * The slice of a user that goes into an access token. Small and immutable, so it
+ * can be cached per user instead of loading the entity for every token issued.
+ */
+public record UserClaims(String email, String fullName, boolean verified) {
+
+    public static UserClaims of(User user) {
+        return new UserClaims(user.getEmail(), user.getFullName(), user.isVerified());
+    }
+
+    public Map<String, Object> toJwtClaims() {
+        return Map.of(
+                "email", email,
+                "fullName", fullName
+        );
+    }
+}
@@ -2,9 +2,18 @@ package com.truerally.auth.repository;
 
 import com.truerally.auth.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
+
+    // select 1 ... fetch first 1 row; answered from the email unique index
+    boolean existsByEmail(String email);
+
+    // three columns by primary key; no entity is loaded into the persistence context
+    @Query("select new com.truerally.auth.repository.UserClaims(u.email, u.fullName, u.verified) from User u where u.id = :id")
+    Optional<UserClaims> findClaimsById(@Param("id") UUID id);
 }
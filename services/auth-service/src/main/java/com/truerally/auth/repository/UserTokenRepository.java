@@ -1,14 +1,38 @@
 package com.truerally.auth.repository;
 
+import com.truerally.auth.model.TokenType;
 import com.truerally.auth.model.UserToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserTokenRepository extends JpaRepository<UserToken, UUID> {
-    Optional<UserToken> findByToken(String token);
+    Optional<UserToken> findByTokenHash(byte[] tokenHash);
+
+    Optional<UserToken> findByTokenHashAndType(byte[] tokenHash, TokenType type);
 
-    Optional<UserToken> findByTokenAndType(String token, String type);
+    Optional<UserToken> findByTokenHashAndTypeAndIsUsedFalse(byte[] tokenHash, TokenType type);
 
-    Optional<UserToken> findByTokenAndTypeAndIsUsedFalse(String token, String type);
+    /**
+     * Marks a live refresh token used and returns its owner in one round trip.
+     * The conditional UPDATE takes the row lock, so of two concurrent refreshes with the
+     * same token exactly one gets a row back.
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE auth.user_tokens SET is_used = true
+            WHERE token_hash = :tokenHash
+              AND type = :type
+              AND is_used = false
+              AND expires_at > :now
+            RETURNING user_id
+            """, nativeQuery = true)
+    Optional<UUID> consumeToken(@Param("tokenHash") byte[] tokenHash,
+                                @Param("type") short type,
+                                @Param("now") LocalDateTime now);
 }
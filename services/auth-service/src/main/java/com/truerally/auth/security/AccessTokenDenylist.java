@@ -0,0 +1,133 @@
+package com.truerally.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory set of revoked access-token IDs ({@code jti}), checked on every
+ * authenticated request.
+ * <p>
+ * Each entry is a 128-bit digest of the jti and lives exactly until the
+ * token's {@code exp}; after that the signature check rejects the token anyway.
+ * Memory is therefore bounded by the revocations made within one access-token
+ * lifetime (rate x 5 minutes), about 100 bytes each. There is deliberately no size
+ * cap: evicting a live entry would let a revoked token back in. Crossing
+ * {@code alert-entries} instead logs a warning and counts
+ * {@code auth.jwt.denylist.over_alert}.
+ */
+@Component
+public class AccessTokenDenylist {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenDenylist.class);
+
+    private final Cache<TokenId, Instant> revoked;
+    private final long alertEntries;
+    private final AtomicBoolean overAlert = new AtomicBoolean();
+    private final Counter rejected;
+    private final Counter overAlertCounter;
+
+    public AccessTokenDenylist(@Value("${jwt.denylist.alert-entries:200000}") long alertEntries,
+                               MeterRegistry registry) {
+        this.alertEntries = alertEntries;
+        this.revoked = Caffeine.newBuilder()
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, revoked, "jwt_denylist");
+        this.rejected = Counter.builder("auth.jwt.denied")
+                .description("Requests carrying a revoked access token")
+                .register(registry);
+        this.overAlertCounter = Counter.builder("auth.jwt.denylist.over_alert")
+                .description("Revocations stored while the denylist held more than alert-entries")
+                .register(registry);
+    }
+
+    /**
+     * Runs once the logout transaction commits, so a rolled-back logout leaves the
+     * token usable, as its refresh token still is; outside a transaction it runs at once.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRevoked(AccessTokenRevokedEvent event) {
+        revoke(event.tokenId(), event.expiresAt());
+        log.info("event=access_token_revoked userId={} expiresAt={}", event.userId(), event.expiresAt());
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return; // nothing to deny: no jti, or the token has already expired
+        }
+        revoked.put(TokenId.of(tokenId), expiresAt);
+        checkSize();
+    }
+
+    private void checkSize() {
+        long size = revoked.estimatedSize();
+        if (size <= alertEntries) {
+            overAlert.set(false);
+            return;
+        }
+        overAlertCounter.increment();
+        if (overAlert.compareAndSet(false, true)) {
+            log.warn("event=access_token_denylist_over_alert entries={} alertEntries={}", size, alertEntries);
+        }
+    }
+
+    /** True if the principal's jti has been revoked and the token has not yet expired. */
+    public boolean isRevoked(JwtPrincipal principal) {
+        String tokenId = principal.getTokenId();
+        if (tokenId == null || revoked.getIfPresent(TokenId.of(tokenId)) == null) {
+            return false;
+        }
+        rejected.increment();
+        return true;
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<TokenId, Instant> {
+        @Override
+        public long expireAfterCreate(TokenId key, Instant expiresAt, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenId key, Instant expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenId key, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /** Fixed-width (16 byte) key: the first half of SHA-256(jti). */
+    private record TokenId(long hi, long lo) {
+
+        static TokenId of(String tokenId) {
+            try {
+                MessageDigest md = MessageDigest.getInstance("SHA-256");
+                ByteBuffer digest = ByteBuffer.wrap(md.digest(tokenId.getBytes(StandardCharsets.UTF_8)));
+                return new TokenId(digest.getLong(), digest.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.truerally.auth.security;
+
+import java.time.Instant;
+
+/**
+ * An access token that must stop authenticating before its {@code exp}.
+ * Published on logout; {@link AccessTokenDenylist} listens for it.
+ */
+public record AccessTokenRevokedEvent(String tokenId, String userId, Instant expiresAt) {
+}
@@ -0,0 +1,15 @@
+package com.truerally.auth.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/** A freshly signed access token together with the jti and expiry inside it. */
+@Getter
+@AllArgsConstructor
+public class IssuedAccessToken {
+    private final String value;
+    private final String tokenId;   // jti
+    private final Instant expiresAt;
+}
@@ -1,5 +1,6 @@
 package com.truerally.auth.security;
 
+import com.truerally.auth.exception.InvalidTokenException;
 import com.truerally.auth.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -17,9 +18,13 @@ import java.util.Collections;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final AccessTokenDenylist denylist;
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
+    public JwtAuthFilter(JwtUtil jwtUtil, VerifiedTokenCache tokenCache, AccessTokenDenylist denylist) {
         this.jwtUtil = jwtUtil;
+        this.tokenCache = tokenCache;
+        this.denylist = denylist;
     }
 
     @Override
@@ -31,14 +36,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtUtil.isValid(token)) {
-                String userId = jwtUtil.getSubject(token);
+            try {
+                // Repeat requests with the same token are served from the cache;
+                // otherwise a single verified parse checks signature, issuer and expiry
+                JwtPrincipal principal = tokenCache.get(token, jwtUtil::verify);
+
+                // Checked on cache hits too: a revoked token may still be cached as verified
+                if (denylist.isRevoked(principal)) {
+                    throw new InvalidTokenException("Access token revoked");
+                }
 
                 // Build Authentication
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
+                        new UsernamePasswordAuthenticationToken(principal.getSubject(), null, Collections.emptyList());
+                authentication.setDetails(principal);
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+            } catch (InvalidTokenException ignored) {
+                // Unauthenticated; the entry point answers 401 for protected routes
             }
         }
 
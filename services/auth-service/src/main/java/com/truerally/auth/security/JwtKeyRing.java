@@ -0,0 +1,132 @@
+package com.truerally.auth.security;
+
+import com.truerally.auth.config.JwtKeyProperties;
+import com.truerally.common.security.Jwks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signing key for new tokens plus every public key still accepted for verification.
+ * The JWKS document is built once since the ring is immutable after startup.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final String activeKid;
+    private final PrivateKey signingKey;
+    private final Map<String, PublicKey> publicKeys;
+    private final Map<String, Object> jwks;
+
+    public JwtKeyRing(JwtKeyProperties properties) {
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        PrivateKey signingKey = null;
+        String activeKid = properties.getActiveKid();
+
+        if (properties.getKeys().isEmpty()) {
+            if (!properties.isAllowEphemeralKey()) {
+                throw new IllegalStateException("No JWT signing keys configured: set jwt.signing.keys and "
+                        + "jwt.signing.active-kid, or jwt.signing.allow-ephemeral-key=true for local development");
+            }
+            // Dev fallback: tokens die with the process and replicas cannot verify each other's tokens
+            KeyPair pair = generateKeyPair();
+            activeKid = "ephemeral-" + UUID.randomUUID();
+            signingKey = pair.getPrivate();
+            publicKeys.put(activeKid, pair.getPublic());
+            log.warn("event=jwt_ephemeral_key kid={} reason=no_signing_keys_configured", activeKid);
+        } else {
+            for (JwtKeyProperties.SigningKey key : properties.getKeys()) {
+                publicKeys.put(key.getKid(), decodePublic(key.getPublicKey()));
+                if (key.getKid().equals(activeKid)) {
+                    if (key.getPrivateKey() == null) {
+                        throw new IllegalStateException("Active JWT key " + activeKid + " has no private key");
+                    }
+                    signingKey = decodePrivate(key.getPrivateKey());
+                }
+            }
+            if (signingKey == null) {
+                throw new IllegalStateException("jwt.signing.active-kid '" + activeKid + "' is not in jwt.signing.keys");
+            }
+        }
+
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.publicKeys = Map.copyOf(publicKeys);
+
+        List<Map<String, Object>> jwkList = new ArrayList<>();
+        publicKeys.forEach((kid, key) -> jwkList.add(Jwks.toJwk(kid, (ECPublicKey) key)));
+        this.jwks = Map.of("keys", List.copyOf(jwkList));
+        log.info("event=jwt_keys_loaded activeKid={} publishedKids={}", activeKid, publicKeys.keySet());
+    }
+
+    /** A ring holding one freshly generated key, for tests and benchmarks. */
+    public static JwtKeyRing ephemeral() {
+        JwtKeyProperties properties = new JwtKeyProperties();
+        properties.setAllowEphemeralKey(true);
+        return new JwtKeyRing(properties);
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public PrivateKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * @return the verification key for {@code kid}, or {@code null} if it is not (or no longer) trusted
+     */
+    public PublicKey getPublicKey(String kid) {
+        return kid != null ? publicKeys.get(kid) : null;
+    }
+
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to generate EC key pair", e);
+        }
+    }
+
+    private static PrivateKey decodePrivate(String base64) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(Base64.getMimeDecoder().decode(base64)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid EC private key", e);
+        }
+    }
+
+    private static PublicKey decodePublic(String base64) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getMimeDecoder().decode(base64)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid EC public key", e);
+        }
+    }
+}
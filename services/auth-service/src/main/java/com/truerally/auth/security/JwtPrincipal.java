@@ -0,0 +1,30 @@
+package com.truerally.auth.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Result of a single verified parse of an access token. Everything the
+ * request path needs is read from here so the token is never parsed twice.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal {
+    private final String subject;   // userId
+    private final String issuer;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Claims claims;
+
+    /** The token's {@code jti}, or null for tokens issued before IDs were added. */
+    public String getTokenId() {
+        return claims.getId();
+    }
+
+    public <T> T getClaim(String name, Class<T> type) {
+        return claims.get(name, type);
+    }
+}
@@ -0,0 +1,180 @@
+package com.truerally.auth.security;
+
+import com.truerally.auth.config.LoginThrottleProperties;
+import com.truerally.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Brute-force guard in front of login, checked before any database lookup or
+ * password hash. Each client address and each account has its own
+ * {@link TokenBucket}; an attempt needs a permit from both.
+ * <p>
+ * Buckets sit in a {@link ConcurrentHashMap}, whose bins act as the lock stripes:
+ * lookups are lock-free, creating a bucket locks one bin, and taking a permit is a
+ * CAS on the bucket. Nothing is shared across keys, so throughput scales with cores.
+ * Memory is bounded by {@code max-entries}; a periodic sweep drops buckets that have
+ * refilled completely, since a full bucket behaves exactly like a new one. When the
+ * table is full, new keys are still counted, in one of {@code overflow-stripes}
+ * shared buckets picked by a seeded hash of the key: keys that collide share a
+ * limit, which throttles a few bystanders during a flood instead of letting it through.
+ */
+@Component
+@EnableConfigurationProperties(LoginThrottleProperties.class)
+public class LoginThrottle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private final LoginThrottleProperties properties;
+    private final LongSupplier clock;
+    private final long origin;
+    private final int stripeSeed = ThreadLocalRandom.current().nextInt();
+    private final Limit emailLimit;
+    private final Limit ipLimit;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter throttledEmail;
+    private final Counter throttledIp;
+    private final Counter overflow;
+    private final Counter evicted;
+
+    @Autowired
+    public LoginThrottle(LoginThrottleProperties properties, MeterRegistry registry) {
+        this(properties, registry, System::currentTimeMillis);
+    }
+
+    LoginThrottle(LoginThrottleProperties properties, MeterRegistry registry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.emailLimit = new Limit(properties.getEmail(), properties.getOverflowStripes());
+        this.ipLimit = new Limit(properties.getIp(), properties.getOverflowStripes());
+
+        this.throttledEmail = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before authentication")
+                .tag("key", "email")
+                .register(registry);
+        this.throttledIp = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before authentication")
+                .tag("key", "ip")
+                .register(registry);
+        this.overflow = Counter.builder("auth.login.throttle.overflow")
+                .description("Attempts counted in a shared overflow bucket because the bucket table was full")
+                .register(registry);
+        this.evicted = Counter.builder("auth.login.throttle.evicted")
+                .description("Idle buckets dropped by the sweep")
+                .register(registry);
+        Gauge.builder("auth.login.throttle.buckets", buckets, ConcurrentHashMap::size)
+                .description("Token buckets currently held")
+                .register(registry);
+    }
+
+    /**
+     * Takes a login permit for this client address and account, or throws
+     * {@link TooManyRequestsException} with the time until the next one.
+     */
+    public void acquire(String email, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = clock.getAsLong() - origin;
+        if (clientIp != null) {
+            long waitMs = tryAcquire("ip:" + clientIp, ipLimit, now);
+            if (waitMs > 0) {
+                throttledIp.increment();
+                log.warn("event=login_throttled key=ip ip={} retryAfterMs={}", clientIp, waitMs);
+                throw tooMany(waitMs);
+            }
+        }
+        if (email != null) {
+            long waitMs = tryAcquire("email:" + email.trim().toLowerCase(Locale.ROOT), emailLimit, now);
+            if (waitMs > 0) {
+                throttledEmail.increment();
+                log.warn("event=login_throttled key=email email={} retryAfterMs={}", email, waitMs);
+                throw tooMany(waitMs);
+            }
+        }
+    }
+
+    private long tryAcquire(String key, Limit limit, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxEntries()) {
+                overflow.increment();
+                return limit.overflow[stripe(key, limit.overflow.length)]
+                        .tryAcquire(now, limit.capacityMilli, limit.refillMilliPerMs);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.capacityMilli, now));
+        }
+        return bucket.tryAcquire(now, limit.capacityMilli, limit.refillMilliPerMs);
+    }
+
+    /**
+     * Drops buckets that have fully refilled. A thread that fetched a bucket just before
+     * it was removed may spend one permit on the orphan; the key then starts over full,
+     * which is what it would have been anyway.
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = clock.getAsLong() - origin;
+        int[] removed = {0};
+        buckets.entrySet().removeIf(e -> {
+            Limit limit = e.getKey().startsWith("ip:") ? ipLimit : emailLimit;
+            boolean idle = e.getValue().isFull(now, limit.capacityMilli, limit.refillMilliPerMs);
+            if (idle) {
+                removed[0]++;
+            }
+            return idle;
+        });
+        evicted.increment(removed[0]);
+    }
+
+    /** Seeded so a client can't aim its keys at the stripe a particular account lands in. */
+    private int stripe(String key, int stripes) {
+        int h = (key.hashCode() ^ stripeSeed) * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), stripes);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private static TooManyRequestsException tooMany(long waitMs) {
+        return new TooManyRequestsException("Too many login attempts, please retry later",
+                Math.max(1, (waitMs + 999) / 1000));
+    }
+
+    private static final class Limit {
+        final long capacityMilli;
+        final double refillMilliPerMs;
+        final TokenBucket[] overflow;
+
+        Limit(LoginThrottleProperties.Limit limit, int overflowStripes) {
+            if (limit.getCapacity() < 1 || limit.getCapacity() > TokenBucket.MAX_CAPACITY || limit.getRefillPerMinute() < 1) {
+                throw new IllegalArgumentException("login throttle capacity must be 1.." + TokenBucket.MAX_CAPACITY
+                        + " and refill-per-minute >= 1");
+            }
+            this.capacityMilli = limit.getCapacity() * 1000L;
+            this.refillMilliPerMs = limit.getRefillPerMinute() * 1000.0 / 60_000;
+            if (overflowStripes < 1) {
+                throw new IllegalArgumentException("login throttle overflow-stripes must be >= 1");
+            }
+            this.overflow = new TokenBucket[overflowStripes];
+            for (int i = 0; i < overflowStripes; i++) {
+                overflow[i] = new TokenBucket(capacityMilli, 0);
+            }
+        }
+    }
+}
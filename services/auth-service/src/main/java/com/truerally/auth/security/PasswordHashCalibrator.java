@@ -0,0 +1,51 @@
+package com.truerally.auth.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt work factor for the machine we are running on: the highest
+ * cost whose median hash time stays within the configured target.
+ */
+public final class PasswordHashCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+    private static final String SAMPLE_PASSWORD = "calibration-Pa55word!";
+    private static final int SAMPLES = 3;
+
+    private PasswordHashCalibrator() {
+    }
+
+    public static int calibrateBCrypt(long targetMs, int minStrength, int maxStrength) {
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            long medianMs = medianHashMs(new BCryptPasswordEncoder(strength));
+            log.info("event=bcrypt_calibration strength={} medianMs={} targetMs={}", strength, medianMs, targetMs);
+            if (medianMs > targetMs) {
+                break;
+            }
+            chosen = strength;
+            // Each step doubles the cost; stop early when the next one cannot fit
+            if (medianMs * 2 > targetMs) {
+                break;
+            }
+        }
+        log.info("event=bcrypt_calibrated strength={} targetMs={}", chosen, targetMs);
+        return chosen;
+    }
+
+    private static long medianHashMs(BCryptPasswordEncoder encoder) {
+        encoder.encode(SAMPLE_PASSWORD); // warm-up
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,78 @@
+package com.truerally.auth.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket whose whole state (tokens and last refill time) lives in one
+ * {@code long}, so taking a permit is a single CAS and needs no lock.
+ * <p>
+ * Layout: high 42 bits are milliseconds since the owner's clock origin (~139 years),
+ * low 22 bits are tokens in thousandths, which caps capacity at 4194 permits.
+ */
+final class TokenBucket {
+
+    static final int MAX_CAPACITY = (1 << 22) / 1000 - 1;
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    private final AtomicLong state;
+
+    TokenBucket(long capacityMilli, long nowMs) {
+        this.state = new AtomicLong(pack(nowMs, capacityMilli));
+    }
+
+    /**
+     * Takes one permit. Returns 0 on success, otherwise the milliseconds until a
+     * permit will be available.
+     */
+    long tryAcquire(long nowMs, long capacityMilli, double refillMilliPerMs) {
+        while (true) {
+            long current = state.get();
+            long refilled = refill(current, nowMs, capacityMilli, refillMilliPerMs);
+            long tokens = tokens(refilled);
+            if (tokens < MILLI) {
+                return (long) Math.ceil((MILLI - tokens) / refillMilliPerMs);
+            }
+            if (state.compareAndSet(current, pack(millis(refilled), tokens - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    /** True once the bucket has refilled completely; it is then indistinguishable from a new one. */
+    boolean isFull(long nowMs, long capacityMilli, double refillMilliPerMs) {
+        return tokens(refill(state.get(), nowMs, capacityMilli, refillMilliPerMs)) >= capacityMilli;
+    }
+
+    /**
+     * Credits the tokens earned since the last refill. The clock only advances by the
+     * time actually converted into tokens, so frequent callers don't lose fractions.
+     */
+    private static long refill(long state, long nowMs, long capacityMilli, double refillMilliPerMs) {
+        long last = millis(state);
+        long elapsed = nowMs - last;
+        if (elapsed <= 0) {
+            return state;
+        }
+        long earned = (long) (elapsed * refillMilliPerMs);
+        long tokens = tokens(state) + earned;
+        if (tokens >= capacityMilli) {
+            return pack(nowMs, capacityMilli);
+        }
+        return pack(last + (long) (earned / refillMilliPerMs), tokens);
+    }
+
+    private static long pack(long millis, long tokensMilli) {
+        return millis << TOKEN_BITS | tokensMilli;
+    }
+
+    private static long millis(long state) {
+        return state >>> TOKEN_BITS;
+    }
+
+    private static long tokens(long state) {
+        return state & TOKEN_MASK;
+    }
+}
@@ -0,0 +1,129 @@
+package com.truerally.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of already-verified access tokens.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the bearer token (the raw token is
+ * never retained) and expire exactly at the token's {@code exp}, so a cache hit
+ * can skip signature verification without extending a token's lifetime.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<TokenDigest, JwtPrincipal> cache;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:100000}") long maxEntries,
+                              MeterRegistry registry) {
+        this(maxEntries, registry, System::currentTimeMillis);
+    }
+
+    /** {@code clock} is wall time in millis; it is compared with {@code exp} and also drives the cache's timer. */
+    VerifiedTokenCache(long maxEntries, MeterRegistry registry, LongSupplier clock) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new ExpireAtTokenExpiry(clock))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt_verified_tokens");
+    }
+
+    /**
+     * Returns the cached principal for the token, or verifies it with {@code verifier}
+     * and caches the result. Failed verifications are not cached.
+     */
+    public JwtPrincipal get(String token, Function<String, JwtPrincipal> verifier) {
+        return cache.get(TokenDigest.of(token), digest -> verifier.apply(token));
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(TokenDigest.of(token));
+    }
+
+    /** Keys currently cached; never the tokens themselves. */
+    Set<TokenDigest> keys() {
+        return cache.asMap().keySet();
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<TokenDigest, JwtPrincipal> {
+        private final LongSupplier clock;
+
+        ExpireAtTokenExpiry(LongSupplier clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, JwtPrincipal value, long currentTime) {
+            Instant exp = value.getExpiresAt();
+            if (exp == null) {
+                return 0L; // never cache tokens without an expiry
+            }
+            return Math.max(0L, Duration.between(Instant.ofEpochMilli(clock.getAsLong()), exp).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /** Fixed-width (32 byte) cache key. */
+    static final class TokenDigest {
+        private final long w0, w1, w2, w3;
+
+        private TokenDigest(byte[] digest) {
+            ByteBuffer buf = ByteBuffer.wrap(digest);
+            this.w0 = buf.getLong();
+            this.w1 = buf.getLong();
+            this.w2 = buf.getLong();
+            this.w3 = buf.getLong();
+        }
+
+        static TokenDigest of(String token) {
+            try {
+                MessageDigest md = MessageDigest.getInstance("SHA-256");
+                return new TokenDigest(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TokenDigest other)) return false;
+            return w0 == other.w0 && w1 == other.w1 && w2 == other.w2 && w3 == other.w3;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (w0 ^ (w0 >>> 32)); // digest bits are already uniformly distributed
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.truerally.auth.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.truerally.common.events.AuthEvent;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * JSON wire format of {@link AuthEvent} values: ISO-8601 dates, null fields
+ * omitted, unknown fields ignored so newer producers don't break older readers.
+ * Kept apart from the web ObjectMapper so HTTP serialization changes can't
+ * change the event schema.
+ */
+@Component
+public class AuthEventCodec {
+
+    private final ObjectMapper mapper;
+
+    public AuthEventCodec(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    public byte[] encode(AuthEvent event) {
+        try {
+            return mapper.writeValueAsBytes(event);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize " + event.type().wireName(), e);
+        }
+    }
+
+    public <T extends AuthEvent> T decode(byte[] payload, Class<T> type) throws IOException {
+        return mapper.readValue(payload, type);
+    }
+}
@@ -0,0 +1,85 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.security.AccessTokenDenylist;
+import com.truerally.common.events.AuthEvent;
+import com.truerally.common.events.AuthEventHeaders;
+import com.truerally.common.events.AuthEventType;
+import com.truerally.common.events.SessionRevoked;
+import com.truerally.common.events.UserRegistered;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings this replica's in-memory state in line with changes made through the
+ * others: revoked sessions go into the {@link AccessTokenDenylist} and new emails
+ * into the {@link RegisteredEmailFilter}.
+ * <p>
+ * Each replica consumes the full topic in a group of its own. On assignment it
+ * seeks back one access-token lifetime, which covers every revocation that can
+ * still matter, so no offsets are committed. Both updates are idempotent, so
+ * redelivered or locally produced events need no de-duplication.
+ */
+@Component
+public class AuthEventConsumer implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthEventConsumer.class);
+
+    private final AccessTokenDenylist denylist;
+    private final RegisteredEmailFilter registeredEmails;
+    private final AuthEventCodec codec;
+    private final long replayMs;
+
+    public AuthEventConsumer(AccessTokenDenylist denylist,
+                             RegisteredEmailFilter registeredEmails,
+                             AuthEventCodec codec,
+                             @Value("${jwt.access-token-validity-ms}") long accessTokenValidityMs) {
+        this.denylist = denylist;
+        this.registeredEmails = registeredEmails;
+        this.codec = codec;
+        this.replayMs = accessTokenValidityMs;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), System.currentTimeMillis() - replayMs);
+    }
+
+    @KafkaListener(topics = AuthEvent.TOPIC,
+            groupId = "auth-replica-${random.uuid}",
+            containerFactory = "replicaEventListenerFactory",
+            autoStartup = "${auth-events.consumer.enabled:true}")
+    public void onEvents(List<ConsumerRecord<String, byte[]>> records) {
+        for (ConsumerRecord<String, byte[]> record : records) {
+            AuthEventType type = AuthEventType.fromWireName(header(record, AuthEventHeaders.EVENT_TYPE));
+            try {
+                if (type == AuthEventType.SESSION_REVOKED) {
+                    SessionRevoked event = codec.decode(record.value(), SessionRevoked.class);
+                    denylist.revoke(event.tokenId(), event.expiresAt());
+                } else if (type == AuthEventType.USER_REGISTERED) {
+                    registeredEmails.add(codec.decode(record.value(), UserRegistered.class).email());
+                }
+            } catch (IOException e) {
+                // Skip rather than stall the partition; the database stays the source of truth
+                log.warn("event=auth_event_unreadable type={} partition={} offset={} error={}",
+                        type, record.partition(), record.offset(), e.getMessage());
+            }
+        }
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
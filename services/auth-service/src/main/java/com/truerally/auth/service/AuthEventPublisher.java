@@ -0,0 +1,46 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.model.EventOutbox;
+import com.truerally.auth.repository.EventOutboxRepository;
+import com.truerally.common.events.AuthEvent;
+import com.truerally.common.events.AuthEventType;
+import com.truerally.common.persistence.UuidV7;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records auth events in {@code auth.event_outbox}. Call it inside the transaction
+ * that makes the change: the event commits or rolls back with it, and the request
+ * never waits on the broker. {@link AuthEventRelay} does the publishing.
+ * <p>
+ * Consumers drop an event whose id is not above the last one they applied for
+ * the user, so a user's ids must increase in commit order. Each event after the
+ * first takes a per-user advisory lock, held to commit, and gets its id from the
+ * database clock read under that lock: the previous writer has committed by then,
+ * and one clock serves every replica. {@code UserRegistered} skips both, since
+ * nobody else can see the user before that transaction commits; its id comes
+ * from this JVM, and the next event needs a round trip through the user's inbox.
+ */
+@Service
+public class AuthEventPublisher {
+
+    private final EventOutboxRepository outboxRepository;
+    private final AuthEventCodec codec;
+
+    public AuthEventPublisher(EventOutboxRepository outboxRepository, AuthEventCodec codec) {
+        this.outboxRepository = outboxRepository;
+        this.codec = codec;
+    }
+
+    public void publish(AuthEvent event) {
+        AuthEventType type = event.type();
+        EventOutbox row = new EventOutbox();
+        row.setId(type == AuthEventType.USER_REGISTERED
+                ? UuidV7.next()
+                : UuidV7.at(outboxRepository.lockUserEvents(event.userId())));
+        row.setEventType(type.wireName());
+        row.setSchemaVersion((short) type.schemaVersion());
+        row.setUserId(event.userId());
+        row.setPayload(codec.encode(event));
+        outboxRepository.save(row);
+    }
+}
@@ -0,0 +1,215 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.config.AuthEventProperties;
+import com.truerally.auth.model.EventOutbox;
+import com.truerally.auth.repository.EventOutboxRepository;
+import com.truerally.common.events.AuthEvent;
+import com.truerally.common.events.AuthEventHeaders;
+import com.truerally.common.events.AuthEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes {@code auth.event_outbox} to Kafka in batches and deletes what the
+ * broker acknowledged.
+ * <p>
+ * One replica relays at a time, holding a lease row (V5 migration), and sends
+ * rows in id order, which for any one user is commit order (see
+ * {@link AuthEventPublisher}). Taking the lease and reading the batch is one
+ * short transaction and deleting the acknowledged rows another; nothing holds a
+ * connection while the relay waits on the broker. The whole batch shares one
+ * {@code send-timeout-ms} deadline, which the lease outlasts, and the first
+ * failed send ends it. The producer is idempotent, so its own retries add no
+ * duplicates. A batch that fails or times out is left in place and sent again
+ * on the next poll, which makes delivery at-least-once; consumers de-duplicate
+ * on the event-id header.
+ */
+@Service
+public class AuthEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthEventRelay.class);
+
+    private final EventOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthEventProperties.Relay properties;
+    private final UUID holder = UUID.randomUUID();
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Map<String, Counter> publishedByType = new HashMap<>();
+    private final Timer batchTimer;
+    private final Counter failures;
+
+    public AuthEventRelay(EventOutboxRepository outboxRepository,
+                          KafkaTemplate<String, byte[]> kafkaTemplate,
+                          TransactionTemplate transactionTemplate,
+                          AuthEventProperties properties,
+                          MeterRegistry registry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties.getRelay();
+        if (this.properties.getLeaseMs() <= this.properties.getSendTimeoutMs()) {
+            throw new IllegalArgumentException("auth-events.relay.lease-ms must exceed send-timeout-ms");
+        }
+
+        for (AuthEventType type : AuthEventType.values()) {
+            publishedByType.put(type.wireName(), Counter.builder("auth.events.published")
+                    .description("Events acknowledged by the broker")
+                    .tag("type", type.wireName())
+                    .register(registry));
+        }
+        Gauge.builder("auth.events.outbox.pending", pending, AtomicLong::get)
+                .description("Events waiting in the outbox")
+                .register(registry);
+        this.batchTimer = Timer.builder("auth.events.relay.batch")
+                .description("Time to publish one outbox batch and receive the broker acks")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.failures = Counter.builder("auth.events.relay.failures")
+                .description("Batches left in the outbox after a failed or timed-out publish")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth-events.relay.poll-interval-ms:200}")
+    public void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == properties.getBatchSize()); // keep draining while batches come back full
+    }
+
+    /**
+     * Publishes the oldest batch and deletes it once every record is acknowledged.
+     *
+     * @return number of events published; 0 if the outbox was empty, another
+     *         replica holds the lease, or the publish failed
+     */
+    int relayBatch() {
+        try {
+            List<EventOutbox> batch = transactionTemplate.execute(status -> {
+                if (outboxRepository.tryLease(holder, properties.getLeaseMs()) == 0) {
+                    return List.of();
+                }
+                return outboxRepository.findOldest(properties.getBatchSize());
+            });
+            if (batch == null || batch.isEmpty()) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            send(batch, start + TimeUnit.MILLISECONDS.toNanos(properties.getSendTimeoutMs()));
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            List<UUID> ids = new ArrayList<>(batch.size());
+            for (EventOutbox event : batch) {
+                ids.add(event.getId());
+            }
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteByIds(ids));
+            for (EventOutbox event : batch) {
+                Counter counter = publishedByType.get(event.getEventType());
+                if (counter != null) {
+                    counter.increment();
+                }
+            }
+            return batch.size();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("event=auth_events_relay_failed error={}", rootMessage(e));
+            return 0;
+        }
+    }
+
+    /**
+     * Sends the batch and waits for every ack by {@code deadline}. A send that has
+     * already failed (e.g. metadata unavailable after {@code max.block.ms}) ends the
+     * batch there instead of blocking once more per remaining record.
+     */
+    private void send(List<EventOutbox> batch, long deadline) {
+        List<CompletableFuture<SendResult<String, byte[]>>> acks = new ArrayList<>(batch.size());
+        for (EventOutbox event : batch) {
+            CompletableFuture<SendResult<String, byte[]>> ack = kafkaTemplate.send(toRecord(event));
+            acks.add(ack);
+            if (ack.isCompletedExceptionally()) {
+                throw new IllegalStateException("Broker rejected the batch: " + rootMessage(ack.exceptionNow()));
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Batch not sent within " + properties.getSendTimeoutMs() + "ms");
+            }
+        }
+        kafkaTemplate.flush(); // the whole batch is queued; don't wait out linger.ms
+        try {
+            CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for broker acks", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Broker did not acknowledge the batch: " + rootMessage(e), e);
+        }
+    }
+
+    static ProducerRecord<String, byte[]> toRecord(EventOutbox event) {
+        ProducerRecord<String, byte[]> record =
+                new ProducerRecord<>(AuthEvent.TOPIC, event.getUserId().toString(), event.getPayload());
+        record.headers()
+                .add(header(AuthEventHeaders.EVENT_ID, event.getId().toString()))
+                .add(header(AuthEventHeaders.EVENT_TYPE, event.getEventType()))
+                .add(header(AuthEventHeaders.SCHEMA_VERSION, Short.toString(event.getSchemaVersion())));
+        return record;
+    }
+
+    private static RecordHeader header(String name, String value) {
+        return new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Hands the lease over at once on a clean shutdown instead of after {@code lease-ms}. */
+    @PreDestroy
+    public void releaseLease() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseLease(holder));
+        } catch (RuntimeException e) {
+            log.warn("event=auth_events_relay_lease_release_failed error={}", rootMessage(e));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth-events.relay.depth-refresh-ms:15000}")
+    public void refreshPendingGauge() {
+        pending.set(outboxRepository.countPending());
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : e.toString();
+    }
+}
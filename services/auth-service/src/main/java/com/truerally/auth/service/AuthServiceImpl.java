@@ -5,22 +5,37 @@ import com.truerally.auth.exception.AccountNotVerifiedException;
 import com.truerally.auth.exception.InvalidCredentialsException;
 import com.truerally.auth.exception.InvalidTokenException;
 import com.truerally.auth.exception.UserAlreadyExistsException;
+import com.truerally.auth.model.MailOutbox;
+import com.truerally.auth.model.TokenType;
 import com.truerally.auth.model.User;
 import com.truerally.auth.model.UserToken;
+import com.truerally.auth.repository.MailOutboxRepository;
+import com.truerally.auth.repository.UserClaims;
 import com.truerally.auth.repository.UserRepository;
 import com.truerally.auth.repository.UserTokenRepository;
+import com.truerally.auth.security.AccessTokenRevokedEvent;
+import com.truerally.auth.security.IssuedAccessToken;
+import com.truerally.auth.security.JwtPrincipal;
 import com.truerally.auth.util.EmailTemplateBuilder;
 import com.truerally.auth.util.JwtUtil;
+import com.truerally.common.events.SessionRevoked;
+import com.truerally.common.events.SessionStarted;
+import com.truerally.common.events.UserRegistered;
+import com.truerally.common.events.UserVerified;
+import com.truerally.common.exception.ServiceOverloadedException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,22 +47,33 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final UserTokenRepository userTokenRepository;
-    private final MailService mailService;
+    private final MailOutboxRepository mailOutboxRepository;
     private final EmailTemplateBuilder emailTemplateBuilder;
     private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+    private final RegisteredEmailFilter registeredEmails;
+    private final UserClaimsCache userClaimsCache;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuthEventPublisher authEvents;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public RegisterResponse register(RegisterRequest request) {
         log.info("event=register_attempt email={} timestamp={}", request.getEmail(), Instant.now());
 
-        // 1. Check if email exists
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            log.warn("event=register_failed email={} reason=email_already_registered timestamp={}", request.getEmail(), Instant.now());
-            throw new UserAlreadyExistsException("Email already registered: " + request.getEmail());
+        // 1. Check if email exists (index-only probe; spares a BCrypt hash for known duplicates).
+        // Skipped when the Bloom filter has never seen the email; the unique constraint still decides,
+        // so the probe needs no transaction of its own.
+        if (!registeredEmails.definitelyAbsent(request.getEmail())) {
+            boolean exists = userRepository.existsByEmail(request.getEmail());
+            registeredEmails.recordProbe(exists);
+            if (exists) {
+                throw emailTaken(request.getEmail());
+            }
         }
 
-        // 2. Create user
+        // 2. Create user; BCrypt runs here, before a connection is taken for the writes
         User user = new User();
         user.setEmail(request.getEmail());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
@@ -59,30 +85,42 @@ public class AuthServiceImpl implements AuthService {
         user.setGender(request.getGender());
         user.setVerified(false);
 
-        user = userRepository.save(user);
-
         // 3. Generate verification token
         UserToken token = new UserToken();
-        String tokenValue = UUID.randomUUID().toString();
-        token.setToken(tokenValue);
-        token.setType("VERIFICATION");
+        String tokenValue = tokenService.newToken();
+        token.setTokenHash(tokenService.hash(tokenValue));
+        token.setType(TokenType.VERIFICATION);
         token.setExpiresAt(LocalDateTime.now().plusHours(24));
         token.setUser(user);
-        userTokenRepository.save(token);
 
-        // 4️⃣ Send verification email
-        try {
-            String htmlBody = emailTemplateBuilder.buildVerificationEmail(
-                    user.getFullName() != null ? user.getFullName() : "User",
-                    tokenValue
-            );
-            mailService.sendMail(user.getEmail(), "Verify your TrueRally account", htmlBody);
-            log.info("event=verification_email_sent email={} timestamp={}", user.getEmail(), Instant.now());
-        } catch (Exception e) {
-            log.error("event=verification_email_failed email={} error={} timestamp={}",
-                    user.getEmail(), e.getMessage(), Instant.now());
-            // Optional: you can decide to delete user + token if email fails
-        }
+        // 4️⃣ Verification email, delivered by MailOutboxDispatcher once the rows below commit
+        String htmlBody = emailTemplateBuilder.buildVerificationEmail(
+                user.getFullName() != null ? user.getFullName() : "User",
+                tokenValue
+        );
+
+        // 5. Write user, token and outbox rows in one transaction and one flush. A concurrent
+        // registration that slipped past the exists check is caught here by the unique email constraint.
+        transactionTemplate.executeWithoutResult(status -> {
+            // ids are assigned in memory, so nothing below hits the database until the flush
+            userRepository.save(user);
+            userTokenRepository.save(token);
+            mailOutboxRepository.save(MailOutbox.pending(user.getEmail(), "Verify your TrueRally account", htmlBody));
+            authEvents.publish(new UserRegistered(user.getId(), user.getEmail(), user.getFullName(), user.getDob(),
+                    user.getGender(), user.getCity(), user.getCountry(), user.getPincode(), Instant.now()));
+            try {
+                userRepository.flush();
+            } catch (DataIntegrityViolationException e) {
+                if (isEmailConflict(e)) {
+                    // Registered through another replica since our filter loaded; remember it from now on
+                    registeredEmails.add(request.getEmail());
+                    throw emailTaken(request.getEmail());
+                }
+                throw e;
+            }
+        });
+        registeredEmails.add(user.getEmail());
+        log.info("event=verification_email_queued email={} timestamp={}", user.getEmail(), Instant.now());
 
         log.info("event=register_success userId={} email={} verificationTokenIssued=true timestamp={}",
                 user.getId(), user.getEmail(), Instant.now());
@@ -93,12 +131,13 @@ public class AuthServiceImpl implements AuthService {
     @Transactional
     public VerifyResponse verify(VerifyRequest request) {
 
-        log.info("event=verify_attempt tokenId={} timestamp={}", request.getToken(), Instant.now());
+        byte[] tokenHash = tokenService.hash(request.getToken());
+        log.info("event=verify_attempt tokenRef={} timestamp={}", TokenService.logId(tokenHash), Instant.now());
 
-        UserToken userToken = userTokenRepository.findByToken(request.getToken())
+        UserToken userToken = userTokenRepository.findByTokenHash(tokenHash)
                 .orElseThrow(() -> new InvalidTokenException("Invalid verification token"));
 
-        if (!"VERIFICATION".equals(userToken.getType())) {
+        if (userToken.getType() != TokenType.VERIFICATION) {
             log.warn("event=verify_failed reason=invalid_token_type expected=VERIFICATION found={} timestamp={}",
                     userToken.getType(), Instant.now());
             throw new InvalidTokenException("Invalid token type");
@@ -117,6 +156,8 @@ public class AuthServiceImpl implements AuthService {
         User user = userToken.getUser();
         user.setVerified(true);
         userRepository.save(user);
+        userClaimsCache.evictAfterCommit(user.getId());
+        authEvents.publish(new UserVerified(user.getId(), Instant.now()));
 
         userToken.setUsed(true);
         userTokenRepository.save(userToken);
@@ -150,80 +191,115 @@ public class AuthServiceImpl implements AuthService {
             log.warn("event=login_failed email={} reason=invalid_password timestamp={}", request.getEmail(), Instant.now());
             throw new InvalidCredentialsException();
         }
+        rehashIfOutdated(user, request.getPassword());
 
-        // Create Access Token
-        Map<String, Object> claims = Map.of(
-                "email", user.getEmail(),
-                "fullName", user.getFullName()
-        );
-        String accessToken = jwtUtil.generateAccessToken(user.getId().toString(), claims);
+        // Create Access Token (and seed the claims cache so the first refresh needs no user lookup)
+        UserClaims claims = UserClaims.of(user);
+        userClaimsCache.put(user.getId(), claims);
+        IssuedAccessToken accessToken = jwtUtil.issueAccessToken(user.getId().toString(), claims.toJwtClaims());
 
-        // Create Refresh Token (UUID stored in DB)
-        String refreshToken = UUID.randomUUID().toString();
+        // Create Refresh Token (only its SHA-256 is stored in DB)
+        String refreshToken = tokenService.newToken();
         UserToken tokenEntity = new UserToken();
         tokenEntity.setUser(user);
-        tokenEntity.setToken(refreshToken);
-        tokenEntity.setType("REFRESH");
+        tokenEntity.setTokenHash(tokenService.hash(refreshToken));
+        tokenEntity.setType(TokenType.REFRESH);
         tokenEntity.setCreatedAt(LocalDateTime.now());
         tokenEntity.setExpiresAt(LocalDateTime.now().plusDays(1)); // 1 day refresh token
         tokenEntity.setUsed(false);
 
-        userTokenRepository.save(tokenEntity);
+        // Refresh token and SessionStarted event commit together; BCrypt above ran outside any transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            userTokenRepository.save(tokenEntity);
+            authEvents.publish(new SessionStarted(user.getId(), accessToken.getTokenId(),
+                    accessToken.getExpiresAt(), false, Instant.now()));
+        });
         log.info("event=login_success userId={} email={} accessTokenIssued=true refreshTokenIssued=true timestamp={}",
                 user.getId(), user.getEmail(), Instant.now());
-        return new LoginResponse("Login successful", user.getEmail(), accessToken, refreshToken, 300); // 300s = 5min
+        return new LoginResponse("Login successful", user.getEmail(), accessToken.getValue(), refreshToken, 300); // 300s = 5min
+    }
+
+    /**
+     * Upgrades the stored hash to the current encoder parameters while we still
+     * hold the raw password. Best effort: a saturated hashing pool skips it.
+     */
+    private void rehashIfOutdated(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+            log.info("event=password_rehashed userId={} timestamp={}", user.getId(), Instant.now());
+        } catch (ServiceOverloadedException e) {
+            log.warn("event=password_rehash_skipped userId={} reason=hashing_overloaded timestamp={}", user.getId(), Instant.now());
+        }
     }
 
     @Override
+    @Transactional
     public RefreshResponse refresh(RefreshRequest request) {
 
-        log.info("event=refresh_attempt tokenId={} timestamp={}", request.getRefreshToken(), Instant.now());
-        UserToken token = userTokenRepository.findByTokenAndType(request.getRefreshToken(), "REFRESH")
-                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        byte[] tokenHash = tokenService.hash(request.getRefreshToken());
+        log.info("event=refresh_attempt tokenRef={} timestamp={}", TokenService.logId(tokenHash), Instant.now());
 
-        if (token.isUsed() || token.getExpiresAt().isBefore(LocalDateTime.now())) {
-            log.warn("event=refresh_failed tokenId={} reason=token_used_or_expired timestamp={}", request.getRefreshToken(), Instant.now());
-            throw new InvalidTokenException("Refresh token expired or already used");
-        }
+        // mark old refresh token used and learn its owner in one conditional UPDATE ... RETURNING
+        UUID userId = userTokenRepository.consumeToken(
+                        tokenHash, TokenType.REFRESH.getCode(), LocalDateTime.now())
+                .orElseThrow(() -> {
+                    log.warn("event=refresh_failed tokenRef={} reason=token_invalid_used_or_expired timestamp={}",
+                            TokenService.logId(tokenHash), Instant.now());
+                    return new InvalidTokenException("Refresh token invalid, expired or already used");
+                });
 
-        User user = token.getUser();
+        // create new tokens; claims come from the cache, falling back to a three-column projection
+        UserClaims claims = userClaimsCache.get(userId);
+        IssuedAccessToken newAccessToken = jwtUtil.issueAccessToken(userId.toString(), claims.toJwtClaims());
 
-        // mark old refresh token used
-        token.setUsed(true);
-        userTokenRepository.save(token);
-
-        // create new tokens
-        String newAccessToken = jwtUtil.generateAccessToken(user.getId().toString(),
-                Map.of("email", user.getEmail(),
-                        "fullName", user.getFullName()));
-
-        String newRefreshToken = UUID.randomUUID().toString();
+        String newRefreshToken = tokenService.newToken();
         UserToken newRefresh = new UserToken();
-        newRefresh.setToken(newRefreshToken);
-        newRefresh.setType("REFRESH");
-        newRefresh.setUser(user);
+        newRefresh.setTokenHash(tokenService.hash(newRefreshToken));
+        newRefresh.setType(TokenType.REFRESH);
+        newRefresh.setUser(userRepository.getReferenceById(userId)); // FK only, no SELECT
         newRefresh.setCreatedAt(LocalDateTime.now());
         newRefresh.setExpiresAt(LocalDateTime.now().plusDays(1)); // 1 day refresh token
         newRefresh.setUsed(false);
         userTokenRepository.save(newRefresh);
+        authEvents.publish(new SessionStarted(userId, newAccessToken.getTokenId(),
+                newAccessToken.getExpiresAt(), true, Instant.now()));
 
-        log.info("event=refresh_success userId={} email={} timestamp={}", user.getId(), user.getEmail(), Instant.now());
-        return new RefreshResponse("Token refreshed successfully", user.getEmail(), newAccessToken, newRefreshToken, 300);
+        log.info("event=refresh_success userId={} email={} timestamp={}", userId, claims.email(), Instant.now());
+        return new RefreshResponse("Token refreshed successfully", claims.email(), newAccessToken.getValue(), newRefreshToken, 300);
     }
 
     @Override
+    @Transactional
     public LogoutResponse logout(LogoutRequest request) {
-        log.info("event=logout_attempt tokenId={} timestamp={}", request.getRefreshToken(), Instant.now());
-        UserToken token = userTokenRepository.findByTokenAndType(request.getRefreshToken(), "REFRESH")
+        byte[] tokenHash = tokenService.hash(request.getRefreshToken());
+        log.info("event=logout_attempt tokenRef={} timestamp={}", TokenService.logId(tokenHash), Instant.now());
+        UserToken token = userTokenRepository.findByTokenHashAndType(tokenHash, TokenType.REFRESH)
                 .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
 
         if (token.isUsed()) {
-            log.warn("event=logout_failed tokenId={} reason=token_used_or_expired timestamp={}", request.getRefreshToken(), Instant.now());
+            log.warn("event=logout_failed userId={} tokenRef={} reason=token_used_or_expired timestamp={}",
+                    token.getUser().getId(), TokenService.logId(tokenHash), Instant.now());
             throw new InvalidTokenException("Refresh token expired or already used");
         }
 
         token.setUsed(true);
         userTokenRepository.save(token);
+
+        // Stop the bearer token at this replica's JwtAuthFilter once this commits and at the others via
+        // SessionRevoked, instead of letting it live out its exp
+        JwtPrincipal accessToken = request.getAccessToken();
+        if (accessToken != null) {
+            eventPublisher.publishEvent(new AccessTokenRevokedEvent(
+                    accessToken.getTokenId(), accessToken.getSubject(), accessToken.getExpiresAt()));
+        }
+        authEvents.publish(new SessionRevoked(token.getUser().getId(),
+                accessToken != null ? accessToken.getTokenId() : null,
+                accessToken != null ? accessToken.getExpiresAt() : null,
+                Instant.now()));
         log.info("event=logout_success userId={} email={} timestamp={}", token.getUser().getId(), token.getUser().getEmail(), Instant.now());
         return new LogoutResponse("User logged out successfully!", token.getUser().getEmail());
     }
@@ -241,7 +317,18 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public ConfirmResetResponse confirmReset(ConfirmResetRequest request) {
-        // TODO: validate token + update password + mark token used
+        // TODO: validate token + update password + mark token used + userClaimsCache.evictAfterCommit(userId)
         return new ConfirmResetResponse("Password reset successful (placeholder)");
     }
+
+    private UserAlreadyExistsException emailTaken(String email) {
+        log.warn("event=register_failed email={} reason=email_already_registered timestamp={}", email, Instant.now());
+        return new UserAlreadyExistsException("Email already registered: " + email);
+    }
+
+    // Postgres reports unique violations as "Key (email)=(...) already exists."
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        String detail = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return detail != null && detail.contains("(email)");
+    }
 }
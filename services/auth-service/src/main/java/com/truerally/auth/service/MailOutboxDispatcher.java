@@ -0,0 +1,188 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.config.MailOutboxProperties;
+import com.truerally.auth.model.MailOutbox;
+import com.truerally.auth.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code auth.mail_outbox} in batches on a dedicated worker pool.
+ * Failed sends are retried with exponential backoff and jitter, and moved to
+ * DEAD after {@code mail.outbox.max-attempts}.
+ */
+@Service
+public class MailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository outboxRepository;
+    private final MailService mailService;
+    private final TaskExecutor mailExecutor;
+    private final MailOutboxProperties properties;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter failureCounter;
+    private final Counter deadLetterCounter;
+
+    public MailOutboxDispatcher(MailOutboxRepository outboxRepository,
+                                MailService mailService,
+                                @Qualifier("mailExecutor") TaskExecutor mailExecutor,
+                                MailOutboxProperties properties,
+                                MeterRegistry registry) {
+        this.outboxRepository = outboxRepository;
+        this.mailService = mailService;
+        this.mailExecutor = mailExecutor;
+        this.properties = properties;
+
+        Gauge.builder("auth.mail.outbox.pending", pending, AtomicLong::get)
+                .description("Emails waiting in the outbox")
+                .register(registry);
+        this.sendTimer = Timer.builder("auth.mail.send")
+                .description("Per-message time to hand an outbox batch to the SMTP server")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.sentCounter = Counter.builder("auth.mail.sent")
+                .description("Emails delivered to the SMTP server")
+                .register(registry);
+        this.failureCounter = Counter.builder("auth.mail.send.failures")
+                .description("Failed send attempts (each retry counts)")
+                .register(registry);
+        this.deadLetterCounter = Counter.builder("auth.mail.dead_lettered")
+                .description("Emails abandoned after max attempts")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == properties.getBatchSize()); // keep draining while batches come back full
+    }
+
+    /**
+     * Claims one batch, splits it across the worker pool and waits until every
+     * message has been sent or rescheduled. Each worker pushes its share over a
+     * single pooled SMTP session.
+     *
+     * @return number of messages claimed
+     */
+    int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MailOutbox> batch = outboxRepository.claimBatch(
+                now, now.plusNanos(properties.getLeaseMs() * 1_000_000), properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        int chunkSize = Math.max(1, (batch.size() + properties.getWorkers() - 1) / properties.getWorkers());
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<MailOutbox> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            sends.add(CompletableFuture.runAsync(() -> deliver(chunk), mailExecutor));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        return batch.size();
+    }
+
+    private void deliver(List<MailOutbox> chunk) {
+        List<MailOutbox> composed = new ArrayList<>(chunk.size());
+        List<MimeMessage> messages = new ArrayList<>(chunk.size());
+        for (MailOutbox mail : chunk) {
+            try {
+                messages.add(mailService.compose(mail.getRecipient(), mail.getSubject(), mail.getHtmlBody()));
+                composed.add(mail);
+            } catch (Exception e) {
+                failed(mail, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<MailSendException> results;
+        try {
+            results = mailService.sendBatch(messages);
+        } catch (Exception e) {
+            composed.forEach(mail -> failed(mail, e));
+            return;
+        }
+        sendTimer.record((System.nanoTime() - start) / messages.size(), TimeUnit.NANOSECONDS);
+
+        for (int i = 0; i < composed.size(); i++) {
+            MailOutbox mail = composed.get(i);
+            if (results.get(i) == null) {
+                outboxRepository.markSent(mail.getId(), LocalDateTime.now());
+                sentCounter.increment();
+                log.info("event=mail_sent outboxId={} attempt={}", mail.getId(), mail.getAttempts() + 1);
+            } else {
+                failed(mail, results.get(i));
+            }
+        }
+    }
+
+    private void failed(MailOutbox mail, Exception e) {
+        failureCounter.increment();
+        int attempt = mail.getAttempts() + 1;
+        String error = truncate(rootMessage(e));
+        if (attempt >= properties.getMaxAttempts()) {
+            outboxRepository.markDead(mail.getId(), error);
+            deadLetterCounter.increment();
+            log.error("event=mail_dead_lettered outboxId={} attempts={} error={}", mail.getId(), attempt, error);
+        } else {
+            LocalDateTime next = LocalDateTime.now().plusNanos(backoffMs(attempt) * 1_000_000);
+            outboxRepository.markRetry(mail.getId(), next, error);
+            log.warn("event=mail_send_failed outboxId={} attempt={} nextAttemptAt={} error={}",
+                    mail.getId(), attempt, next, error);
+        }
+    }
+
+    /** Exponential backoff with full jitter over the upper half of the window. */
+    long backoffMs(int attempt) {
+        long exp = properties.getInitialBackoffMs() << Math.min(attempt - 1, 20);
+        long capped = Math.min(exp, properties.getMaxBackoffMs());
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.depth-refresh-ms:15000}")
+    public void refreshPendingGauge() {
+        pending.set(outboxRepository.countPending());
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : e.getMessage();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "unknown";
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
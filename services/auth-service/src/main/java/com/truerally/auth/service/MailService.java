@@ -2,36 +2,52 @@ package com.truerally.auth.service;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class MailService {
 
-    private final JavaMailSender mailSender;
+    private static final Logger log = LoggerFactory.getLogger(MailService.class);
+
+    private final PooledMailTransport transport;
 
     @Autowired
-    public MailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public MailService(PooledMailTransport transport) {
+        this.transport = transport;
     }
 
     public void sendMail(String to, String subject, String htmlBody) {
-        MimeMessage message = mailSender.createMimeMessage();
+        transport.send(compose(to, subject, htmlBody));
+        log.info("event=mail_delivered to={}", to);
+    }
 
+    /**
+     * Sends all messages over one SMTP session.
+     *
+     * @return one entry per message, {@code null} when that message was accepted
+     */
+    public List<MailSendException> sendBatch(List<MimeMessage> messages) {
+        return transport.sendBatch(messages);
+    }
+
+    public MimeMessage compose(String to, String subject, String htmlBody) {
+        MimeMessage message = transport.createMimeMessage();
         try {
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(htmlBody, true); // HTML enabled
-            mailSender.send(message);
-
-            System.out.println("Email sent successfully to " + to);
-
+            return message;
         } catch (MessagingException e) {
-            System.err.println("Failed to send email to " + to + ": " + e.getMessage());
-            throw new RuntimeException("Failed to send email", e);
+            log.error("event=mail_compose_failed to={} error={}", to, e.getMessage());
+            throw new MailSendException("Failed to build email", e);
         }
     }
 }
@@ -0,0 +1,256 @@
+package com.truerally.auth.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small pool of authenticated SMTP sessions.
+ * <p>
+ * Opening a session costs a TCP connect, EHLO, STARTTLS and AUTH; here that is
+ * paid once per pooled connection instead of once per message. Connections that
+ * fail mid-send are discarded and the message is retried once on a fresh one.
+ */
+@Component
+public class PooledMailTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledMailTransport.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final BlockingQueue<PooledConnection> idle;
+    private final long validateAfterIdleMs;
+    private final long borrowTimeoutMs;
+
+    private final Timer handshakeTimer;
+    private final Timer sendTimer;
+    private final Counter sessionsOpened;
+    private final Counter sessionsBroken;
+
+    public PooledMailTransport(JavaMailSenderImpl mailSender,
+                               @Value("${mail.smtp-pool.size:4}") int size,
+                               @Value("${mail.smtp-pool.validate-after-idle-ms:30000}") long validateAfterIdleMs,
+                               @Value("${mail.smtp-pool.borrow-timeout-ms:30000}") long borrowTimeoutMs,
+                               MeterRegistry registry) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(size, true);
+        this.idle = new ArrayBlockingQueue<>(size);
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+
+        this.handshakeTimer = Timer.builder("auth.mail.smtp.handshake")
+                .description("Opening an SMTP session: TCP connect, EHLO, STARTTLS and AUTH")
+                .register(registry);
+        this.sendTimer = Timer.builder("auth.mail.smtp.send")
+                .description("Transmitting one message over an open SMTP session")
+                .register(registry);
+        this.sessionsOpened = Counter.builder("auth.mail.smtp.connects")
+                .description("SMTP sessions opened")
+                .register(registry);
+        this.sessionsBroken = Counter.builder("auth.mail.smtp.broken")
+                .description("Pooled SMTP sessions discarded after an error")
+                .register(registry);
+        Gauge.builder("auth.mail.smtp.idle", idle, BlockingQueue::size)
+                .description("Open SMTP sessions waiting in the pool")
+                .register(registry);
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    public void send(MimeMessage message) {
+        List<MailSendException> failures = sendBatch(List.of(message));
+        if (failures.get(0) != null) {
+            throw failures.get(0);
+        }
+    }
+
+    /**
+     * Sends every message over a single pooled session.
+     *
+     * @return one entry per message, {@code null} when that message was accepted
+     */
+    public List<MailSendException> sendBatch(List<MimeMessage> messages) {
+        List<MailSendException> results = new ArrayList<>(messages.size());
+        Lease lease = borrow();
+        try {
+            for (MimeMessage message : messages) {
+                try {
+                    send(lease, message);
+                    results.add(null);
+                } catch (MessagingException | IllegalStateException e) {
+                    results.add(new MailSendException("Failed to send email", e));
+                }
+            }
+        } finally {
+            release(lease);
+        }
+        return results;
+    }
+
+    private void send(Lease lease, MimeMessage message) throws MessagingException {
+        prepare(message);
+        boolean reused = lease.connection != null;
+        if (!reused) {
+            lease.connection = open();
+        }
+        try {
+            transmit(lease.connection, message);
+        } catch (MessagingException | IllegalStateException e) {
+            if (e instanceof SendFailedException rejected && isRejection(rejected)) {
+                throw rejected; // the server answered, so the session itself is fine
+            }
+            discard(lease.connection);
+            lease.connection = null;
+            sessionsBroken.increment();
+            log.warn("event=smtp_session_broken reused={} error={}", reused, e.getMessage());
+            if (!reused) {
+                throw e;
+            }
+            // Server dropped a pooled session (idle timeout, restart); retry once on a new one
+            lease.connection = open();
+            transmit(lease.connection, message);
+        }
+    }
+
+    /**
+     * True when the server refused the message rather than the session failing: it
+     * named invalid recipients, or replied with a permanent 5xx code (e.g. "550 no
+     * such user" to RCPT). A dropped session also surfaces as a
+     * {@link SendFailedException} ("[EOF]"), but with neither.
+     */
+    static boolean isRejection(SendFailedException e) {
+        Address[] invalid = e.getInvalidAddresses();
+        if (invalid != null && invalid.length > 0) {
+            return true;
+        }
+        for (Exception cause = e; cause != null;
+             cause = cause instanceof MessagingException m ? m.getNextException() : null) {
+            if (cause instanceof SendFailedException && isPermanentReply(cause.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** SMTP providers put the server's reply line, code first, in the exception message. */
+    private static boolean isPermanentReply(String reply) {
+        return reply != null && reply.length() >= 3 && reply.charAt(0) == '5'
+                && Character.isDigit(reply.charAt(1)) && Character.isDigit(reply.charAt(2));
+    }
+
+    private void transmit(PooledConnection connection, MimeMessage message) throws MessagingException {
+        long start = System.nanoTime();
+        connection.transport.sendMessage(message, message.getAllRecipients());
+        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        connection.lastUsedMs = System.currentTimeMillis();
+    }
+
+    private static void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+    }
+
+    /** Takes a pool slot and an idle session if one is still usable; the session is opened lazily otherwise. */
+    private Lease borrow() {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Timed out waiting for an SMTP session");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted waiting for an SMTP session");
+        }
+        Lease lease = new Lease();
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            if (isUsable(connection)) {
+                lease.connection = connection;
+                break;
+            }
+            discard(connection);
+        }
+        return lease;
+    }
+
+    private void release(Lease lease) {
+        try {
+            if (lease.connection != null && !idle.offer(lease.connection)) {
+                discard(lease.connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean isUsable(PooledConnection connection) {
+        // isConnected() costs a NOOP round trip, so only check sessions that sat idle
+        if (System.currentTimeMillis() - connection.lastUsedMs < validateAfterIdleMs) {
+            return true;
+        }
+        return connection.transport.isConnected();
+    }
+
+    private PooledConnection open() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(
+                mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        long start = System.nanoTime();
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        handshakeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        sessionsOpened.increment();
+        return new PooledConnection(transport);
+    }
+
+    private static void discard(PooledConnection connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException ignored) {
+            // already broken
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            discard(connection);
+        }
+    }
+
+    private static final class Lease {
+        private PooledConnection connection;
+    }
+
+    private static final class PooledConnection {
+        private final Transport transport;
+        private long lastUsedMs = System.currentTimeMillis();
+
+        private PooledConnection(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
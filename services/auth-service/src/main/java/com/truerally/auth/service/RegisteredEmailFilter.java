@@ -0,0 +1,136 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.config.EmailFilterProperties;
+import com.truerally.auth.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory Bloom filter of registered emails that lets register skip the
+ * duplicate-email probe for addresses that are definitely new. It is only a fast
+ * path: the unique constraint on users.email still decides, so a stale filter
+ * (e.g. an email registered through another replica) costs a wasted hash and a
+ * constraint violation, never a duplicate account.
+ * <p>
+ * Loaded by streaming users.email in the background once the application is
+ * ready; until then every check falls through to the database.
+ */
+@Service
+@EnableConfigurationProperties(EmailFilterProperties.class)
+public class RegisteredEmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private final EmailFilterProperties properties;
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final BloomFilter filter;
+    private final AtomicLong loadedEmails = new AtomicLong();
+    private volatile boolean ready;
+
+    private final Counter skipped;
+    private final Counter confirmed;
+    private final Counter falsePositives;
+
+    public RegisteredEmailFilter(EmailFilterProperties properties,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry registry) {
+        this.properties = properties;
+        this.filter = new BloomFilter(properties.getExpectedUsers(), properties.getFalsePositiveRate());
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(properties.getLoadFetchSize());
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+
+        String probes = "auth.register.email_filter";
+        this.skipped = Counter.builder(probes).tag("result", "definitely_new")
+                .description("Duplicate-email probes skipped by the filter").register(registry);
+        this.confirmed = Counter.builder(probes).tag("result", "duplicate")
+                .description("Filter hits confirmed as existing emails").register(registry);
+        this.falsePositives = Counter.builder(probes).tag("result", "false_positive")
+                .description("Filter hits the database showed to be new emails").register(registry);
+        Gauge.builder("auth.register.email_filter.expected_fpp", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("False-positive probability implied by the filter's current fill")
+                .register(registry);
+        Gauge.builder("auth.register.email_filter.memory", filter, BloomFilter::memoryBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("auth.register.email_filter.loaded", loadedEmails, AtomicLong::get)
+                .description("Emails streamed in at startup")
+                .register(registry);
+    }
+
+    /** True only when the filter is loaded and has never seen this email. */
+    public boolean definitelyAbsent(String email) {
+        if (!ready || filter.mightContain(email)) {
+            return false;
+        }
+        skipped.increment();
+        return true;
+    }
+
+    /** Feeds back the database answer for an email the filter could not rule out. */
+    public void recordProbe(boolean exists) {
+        if (!ready) {
+            return;
+        }
+        if (exists) {
+            confirmed.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    public void add(String email) {
+        filter.put(email);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Thread.ofPlatform().name("email-filter-load").daemon().start(this::load);
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        try {
+            // A cursor needs a transaction on Postgres; without one the driver buffers every row
+            readOnlyTx.executeWithoutResult(status ->
+                    streamingJdbc.query("SELECT email FROM auth.users", rs -> {
+                        filter.put(rs.getString(1));
+                        loadedEmails.incrementAndGet();
+                    }));
+            ready = true;
+            log.info("event=email_filter_loaded emails={} bits={} hashes={} memoryBytes={} expectedFpp={} durationMs={}",
+                    loadedEmails.get(), filter.bitSize(), filter.hashFunctions(), filter.memoryBytes(),
+                    String.format("%.5f", filter.expectedFalsePositiveRate()), (System.nanoTime() - start) / 1_000_000);
+            if (loadedEmails.get() > properties.getExpectedUsers()) {
+                log.warn("event=email_filter_undersized emails={} expectedUsers={}",
+                        loadedEmails.get(), properties.getExpectedUsers());
+            }
+        } catch (RuntimeException e) {
+            // Stay not-ready: register keeps probing the database
+            log.error("event=email_filter_load_failed error={}", e.getMessage());
+        }
+    }
+}
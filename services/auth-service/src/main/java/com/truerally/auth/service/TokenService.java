@@ -1,10 +1,49 @@
 package com.truerally.auth.service;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Opaque verification/refresh tokens. Clients get 256 random bits (base64url);
+ * the database only ever sees the SHA-256 digest, a fixed 32-byte key.
+ */
 @Service
-@RequiredArgsConstructor
 public class TokenService {
-    // TODO: methods to generate/validate JWT and verification tokens
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    public String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return encoder.encodeToString(bytes);
+    }
+
+    /**
+     * Digest used as the lookup key. Also accepts legacy UUID tokens, whose
+     * digests were computed the same way by the V2 migration.
+     */
+    public byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Short, log-safe reference to a token: the first 8 hex digits of its digest.
+     * Enough to correlate log lines with each other and with a row; useless for replay.
+     */
+    public static String logId(byte[] digest) {
+        return HexFormat.of().formatHex(digest, 0, 4);
+    }
 }
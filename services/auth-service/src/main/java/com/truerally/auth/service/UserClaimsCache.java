@@ -0,0 +1,75 @@
+package com.truerally.auth.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.truerally.auth.exception.InvalidTokenException;
+import com.truerally.auth.repository.UserClaims;
+import com.truerally.auth.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Bounded cache of the claims projection per user ID, so refresh can mint an
+ * access token without loading the user.
+ * <p>
+ * Entries expire after a fixed TTL as a backstop; code that changes a cached
+ * field evicts the user with {@link #evictAfterCommit}. Evicting only after
+ * commit keeps a concurrent reader from re-caching the pre-change row.
+ */
+@Component
+public class UserClaimsCache {
+
+    private final Cache<UUID, UserClaims> cache;
+    private final UserRepository userRepository;
+
+    public UserClaimsCache(UserRepository userRepository,
+                           @Value("${jwt.claims-cache.max-entries:50000}") long maxEntries,
+                           @Value("${jwt.claims-cache.ttl-ms:900000}") long ttlMs,
+                           MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "user_claims");
+    }
+
+    /**
+     * Returns the user's claims, loading the projection on a miss.
+     *
+     * @throws InvalidTokenException if the user no longer exists
+     */
+    public UserClaims get(UUID userId) {
+        UserClaims claims = cache.get(userId, id -> userRepository.findClaimsById(id).orElse(null));
+        if (claims == null) {
+            throw new InvalidTokenException("Token owner no longer exists");
+        }
+        return claims;
+    }
+
+    /** Seeds the cache with claims read from a freshly loaded user. */
+    public void put(UUID userId, UserClaims claims) {
+        cache.put(userId, claims);
+    }
+
+    public void evictAfterCommit(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidate(userId); // on rollback too: cheap, and never leaves a stale entry
+            }
+        });
+    }
+}
@@ -0,0 +1,263 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.config.UserTokenPartitionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the daily partitions of {@code auth.user_tokens} (see V3 migration) rolling:
+ * creates the next {@code precreate-days} ahead of time and drops whole days once
+ * every token in them has expired. Dropping a partition is a catalog change, so
+ * expiry costs the same whether a day holds ten rows or ten million.
+ * <p>
+ * Runs are serialised across replicas with a transaction-scoped advisory lock,
+ * taken again by each step since every step commits separately.
+ */
+@Service
+@EnableConfigurationProperties(UserTokenPartitionProperties.class)
+public class UserTokenPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(UserTokenPartitionMaintainer.class);
+
+    static final String PREFIX = "user_tokens_p";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long ADVISORY_LOCK_KEY = 0x7573725f746f6bL; // "usr_tok"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserTokenPartitionProperties properties;
+
+    private final AtomicLong partitions = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong defaultRows = new AtomicLong();
+    private final Counter createdCounter;
+    private final Counter droppedCounter;
+    private final Counter failureCounter;
+
+    public UserTokenPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        UserTokenPartitionProperties properties,
+                                        MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+
+        Gauge.builder("auth.user_tokens.partitions", partitions, AtomicLong::get)
+                .description("Daily partitions of auth.user_tokens, excluding the default partition")
+                .register(registry);
+        Gauge.builder("auth.user_tokens.rows", rows, AtomicLong::get)
+                .description("Estimated rows across all user_tokens partitions (planner statistics)")
+                .register(registry);
+        Gauge.builder("auth.user_tokens.default_rows", defaultRows, AtomicLong::get)
+                .description("Estimated rows in the default partition; non-zero means precreate-days is too short")
+                .register(registry);
+        this.createdCounter = Counter.builder("auth.user_tokens.partitions.created").register(registry);
+        this.droppedCounter = Counter.builder("auth.user_tokens.partitions.dropped").register(registry);
+        this.failureCounter = Counter.builder("auth.user_tokens.partitions.failures").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(fixedDelayString = "${user-tokens.partitions.maintenance-interval-ms:3600000}",
+            initialDelayString = "${user-tokens.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        maintain(LocalDate.now());
+    }
+
+    /**
+     * Each create, drop and purge commits on its own, so one day that cannot be
+     * created (lock timeout, bad row) doesn't roll back the drops behind it.
+     */
+    void maintain(LocalDate today) {
+        try {
+            Plan plan = plan(existingPartitions(), today, properties.getPrecreateDays());
+            boolean ran = true;
+            for (LocalDate day : plan.create()) {
+                ran = ran && step("create", day, () -> create(day));
+            }
+            for (LocalDate day : plan.drop()) {
+                ran = ran && step("drop", day, () -> drop(day));
+            }
+            if (ran) {
+                step("purge", null, this::purgeDefault);
+            }
+        } catch (DataAccessException e) {
+            failureCounter.increment();
+            log.error("event=user_token_partitions_failed error={}", e.getMessage());
+        }
+        refreshStats();
+    }
+
+    /**
+     * Runs one step in its own transaction under the advisory lock.
+     *
+     * @return false when another replica holds the lock and the rest of the run should be skipped
+     */
+    private boolean step(String action, LocalDate day, Runnable ddl) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Boolean locked = jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked)) {
+                    log.debug("event=user_token_partitions_skipped reason=locked_by_other_replica");
+                    return false;
+                }
+                // DDL on a partition locks the parent; don't let it queue behind a long transaction
+                jdbcTemplate.execute("SET LOCAL lock_timeout = " + properties.getLockTimeoutMs());
+                ddl.run();
+                return true;
+            }));
+        } catch (DataAccessException e) {
+            failureCounter.increment();
+            log.error("event=user_token_partition_step_failed action={} day={} error={}", action, day, e.getMessage());
+            return true;
+        }
+    }
+
+    private void create(LocalDate day) {
+        String range = "expires_at >= '" + day + "' AND expires_at < '" + day.plusDays(1) + "'";
+        // The default partition may already hold rows for this day if the job fell behind;
+        // Postgres refuses the new partition until they are out, so park them and move them in
+        Boolean overflow = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM auth.user_tokens_default WHERE " + range + ")", Boolean.class);
+        if (Boolean.TRUE.equals(overflow)) {
+            jdbcTemplate.execute("CREATE TEMP TABLE user_tokens_parked (LIKE auth.user_tokens) ON COMMIT DROP");
+            jdbcTemplate.update("WITH moved AS (DELETE FROM auth.user_tokens_default WHERE " + range
+                    + " RETURNING *) INSERT INTO user_tokens_parked SELECT * FROM moved");
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS auth." + partitionName(day)
+                + " PARTITION OF auth.user_tokens FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+        if (Boolean.TRUE.equals(overflow)) {
+            int moved = jdbcTemplate.update("INSERT INTO auth.user_tokens SELECT * FROM user_tokens_parked");
+            log.warn("event=user_token_default_rows_moved day={} rows={}", day, moved);
+        }
+        createdCounter.increment();
+        log.info("event=user_token_partition_created day={}", day);
+    }
+
+    private void drop(LocalDate day) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS auth." + partitionName(day));
+        droppedCounter.increment();
+        log.info("event=user_token_partition_dropped day={}", day);
+    }
+
+    private void purgeDefault() {
+        // Overflow rows only land here if the job fell behind; keep it from accumulating
+        int purged = jdbcTemplate.update("DELETE FROM auth.user_tokens_default WHERE expires_at <= now()");
+        if (purged > 0) {
+            log.warn("event=user_token_default_partition_purged rows={}", purged);
+        }
+    }
+
+    private void refreshStats() {
+        try {
+            long total = 0;
+            long daily = 0;
+            long overflow = 0;
+            for (Map.Entry<String, Long> partition : partitionRowEstimates().entrySet()) {
+                long estimate = Math.max(0, partition.getValue()); // -1 = never analysed
+                total += estimate;
+                if (dayOf(partition.getKey()) != null) {
+                    daily++;
+                } else {
+                    overflow += estimate;
+                }
+            }
+            partitions.set(daily);
+            rows.set(total);
+            defaultRows.set(overflow);
+        } catch (DataAccessException e) {
+            log.warn("event=user_token_partition_stats_failed error={}", e.getMessage());
+        }
+    }
+
+    private List<LocalDate> existingPartitions() {
+        List<LocalDate> days = new ArrayList<>();
+        for (String name : partitionRowEstimates().keySet()) {
+            LocalDate day = dayOf(name);
+            if (day != null) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private Map<String, Long> partitionRowEstimates() {
+        Map<String, Long> estimates = new TreeMap<>();
+        jdbcTemplate.query("""
+                SELECT c.relname, c.reltuples::bigint AS estimate
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'auth.user_tokens'::regclass
+                """, rs -> {
+            estimates.put(rs.getString("relname"), rs.getLong("estimate"));
+        });
+        return estimates;
+    }
+
+    record Plan(List<LocalDate> create, List<LocalDate> drop) {
+    }
+
+    /**
+     * Days [today, today + precreateDays] must exist. A day's partition holds
+     * expires_at in [day, day + 1), so it is fully expired once day + 1 <= today.
+     */
+    static Plan plan(Iterable<LocalDate> existing, LocalDate today, int precreateDays) {
+        List<LocalDate> create = new ArrayList<>();
+        List<LocalDate> drop = new ArrayList<>();
+        Set<LocalDate> present = new HashSet<>();
+        for (LocalDate day : existing) {
+            present.add(day);
+            if (day.isBefore(today)) {
+                drop.add(day);
+            }
+        }
+        for (int i = 0; i <= precreateDays; i++) {
+            LocalDate day = today.plusDays(i);
+            if (!present.contains(day)) {
+                create.add(day);
+            }
+        }
+        return new Plan(create, drop);
+    }
+
+    static String partitionName(LocalDate day) {
+        return PREFIX + DAY.format(day);
+    }
+
+    static LocalDate dayOf(String partitionName) {
+        if (!partitionName.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partitionName.substring(PREFIX.length()), DAY);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
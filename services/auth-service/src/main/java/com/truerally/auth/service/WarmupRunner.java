@@ -0,0 +1,166 @@
+package com.truerally.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truerally.auth.config.WarmupProperties;
+import com.truerally.auth.dto.LoginRequest;
+import com.truerally.auth.dto.LoginResponse;
+import com.truerally.auth.dto.RegisterRequest;
+import com.truerally.auth.dto.RegisterResponse;
+import com.truerally.auth.security.JwtPrincipal;
+import com.truerally.auth.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the login/refresh hot paths with synthetic data before the pod takes traffic.
+ * Runs as an {@link ApplicationRunner}, so it finishes before Spring Boot moves readiness to
+ * ACCEPTING_TRAFFIC; until then /actuator/health/readiness reports REFUSING_TRAFFIC and
+ * the pod stays out of the load balancer.
+ * <p>
+ * Work is done in rounds. Warm-up stops once the JIT has been close to idle for
+ * {@code quiet-rounds} consecutive rounds (the hot methods are compiled), or when
+ * {@code max-duration-ms} runs out.
+ */
+@Service
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final int ROUND_ITERATIONS = 50;
+    private static final int ROUND_PASSWORD_CHECKS = 4;
+    private static final String PASSWORD = "Warmup-Passw0rd!";
+
+    private final JwtUtil jwtUtil;
+    private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+    private final WarmupProperties properties;
+    private final MeterRegistry registry;
+
+    public WarmupRunner(JwtUtil jwtUtil,
+                        PasswordEncoder passwordEncoder,
+                        TokenService tokenService,
+                        ObjectMapper objectMapper,
+                        WarmupProperties properties,
+                        MeterRegistry registry) {
+        this.jwtUtil = jwtUtil;
+        this.passwordEncoder = passwordEncoder;
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Result result = warmUp(start);
+        long elapsedNanos = System.nanoTime() - start;
+
+        Timer.builder("auth.warmup.duration")
+                .description("Time spent warming up before accepting traffic")
+                .tag("outcome", result.outcome())
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("event=warmup_finished outcome={} rounds={} durationMs={} jitMs={}",
+                result.outcome(), result.rounds(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), result.jitMs());
+    }
+
+    private Result warmUp(long start) {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean canWatchJit = jit != null && jit.isCompilationTimeMonitoringSupported();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(properties.getMaxDurationMs());
+        long minEnd = start + TimeUnit.MILLISECONDS.toNanos(properties.getMinDurationMs());
+        long jitAtStart = canWatchJit ? jit.getTotalCompilationTime() : 0;
+
+        // Cheap cost factor: the BCrypt code is identical, only the round count differs
+        String passwordHash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+        long lastJitMs = jitAtStart;
+        int quiet = 0;
+        int rounds = 0;
+        String outcome = "budget_exhausted";
+
+        try {
+            while (System.nanoTime() < deadline) {
+                round(passwordHash);
+                rounds++;
+                if (!canWatchJit) {
+                    continue;
+                }
+                long jitMs = jit.getTotalCompilationTime();
+                quiet = jitMs - lastJitMs <= properties.getQuietCompileMs() ? quiet + 1 : 0;
+                lastJitMs = jitMs;
+                if (quiet >= properties.getQuietRounds() && System.nanoTime() >= minEnd) {
+                    outcome = "jit_quiet";
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Warm-up must never keep a healthy instance out of rotation
+            log.warn("event=warmup_aborted rounds={} error={}", rounds, e.toString());
+            outcome = "failed";
+        }
+        return new Result(outcome, rounds, canWatchJit ? lastJitMs - jitAtStart : -1);
+    }
+
+    private void round(String passwordHash) {
+        for (int i = 0; i < ROUND_ITERATIONS; i++) {
+            String userId = UUID.randomUUID().toString();
+            String token = jwtUtil.generateAccessToken(userId, Map.of(
+                    "email", "warmup+" + i + "@truerally.dev",
+                    "fullName", "Warm Up",
+                    "verified", true));
+            JwtPrincipal principal = jwtUtil.verify(token);
+            String email = principal.getClaim("email", String.class);
+
+            // Requests are parsed and responses written, as on the real endpoints
+            read(json(new LoginRequest(email, PASSWORD)), LoginRequest.class);
+            read(json(new RegisterRequest(email, PASSWORD, "Warm Up", LocalDate.of(1990, 1, 1),
+                    "Pune", "IN", "411001", "M")), RegisterRequest.class);
+            // Same shape as AuthServiceImpl.login: a real refresh token and expiresIn in seconds
+            json(new LoginResponse("Login successful", email, token, tokenService.newToken(), 300).toPublicResponse());
+            json(new RegisterResponse("User registered successfully. Please verify email.", email));
+        }
+        for (int i = 0; i < ROUND_PASSWORD_CHECKS; i++) {
+            passwordEncoder.matches(PASSWORD, passwordHash);
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("Warm-up serialization failed for " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private void read(String json, Class<?> type) {
+        try {
+            objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            throw new IllegalStateException("Warm-up deserialization failed for " + type.getSimpleName(), e);
+        }
+    }
+
+    private record Result(String outcome, int rounds, long jitMs) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.truerally.auth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free Bloom filter over strings. Bits live in an {@link AtomicLongArray}, so
+ * concurrent {@link #put} and {@link #mightContain} need no locking; a reader racing a
+ * writer can at worst miss an element that is being added at that instant.
+ * <p>
+ * Sized for {@code expectedInsertions} at {@code falsePositiveRate}: m = -n ln p / (ln 2)^2
+ * bits and k = (m / n) ln 2 probes, derived from one 128-bit hash by double hashing.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final LongAdder bitsSet = new LongAdder();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be >= 1 and falsePositiveRate in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.words = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long[] h = hash(value);
+        long combined = h[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit((combined & Long.MAX_VALUE) % bitCount);
+            combined += h[1];
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long[] h = hash(value);
+        long combined = h[0];
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += h[1];
+        }
+        return true;
+    }
+
+    /** Current false-positive probability, from the fraction of bits set: (set / m)^k. */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.sum() / bitCount, hashFunctions);
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long memoryBytes() {
+        return bitCount / 8;
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+        bitsSet.increment();
+    }
+
+    /** MurmurHash3 x64 128-bit over the UTF-8 bytes, seed 0. */
+    static long[] hash(String value) {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            h1 ^= mixK1(k1, c1, c2);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2, c1, c2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            int shift = ((i - tail) & 7) * 8;
+            if (i - tail >= 8) {
+                k2 |= (data[i] & 0xffL) << shift;
+            } else {
+                k1 |= (data[i] & 0xffL) << shift;
+            }
+        }
+        if (data.length - tail > 8) {
+            h2 ^= mixK2(k2, c1, c2);
+        }
+        if (data.length > tail) {
+            h1 ^= mixK1(k1, c1, c2);
+        }
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[]{h1, h2};
+    }
+
+    private static long mixK1(long k1, long c1, long c2) {
+        return Long.rotateLeft(k1 * c1, 31) * c2;
+    }
+
+    private static long mixK2(long k2, long c1, long c2) {
+        return Long.rotateLeft(k2 * c2, 33) * c1;
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        long v = 0;
+        for (int i = 7; i >= 0; i--) {
+            v = v << 8 | (data[offset + i] & 0xffL);
+        }
+        return v;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb53fe1a85ec3L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -1,64 +1,110 @@
 package com.truerally.auth.util;
 
+import com.truerally.auth.exception.InvalidTokenException;
+import com.truerally.auth.security.IssuedAccessToken;
+import com.truerally.auth.security.JwtKeyRing;
+import com.truerally.auth.security.JwtPrincipal;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    private final Key key;
+    private final JwtKeyRing keyRing;
     private final long accessTokenValidityMs;
     private final String issuer;
+    // Immutable and thread-safe once built, so one instance serves every request.
+    private final JwtParser parser;
 
     public JwtUtil(
-            @Value("${jwt.secret}") String secret,
+            JwtKeyRing keyRing,
             @Value("${jwt.access-token-validity-ms}") long accessTokenValidityMs,
             @Value("${jwt.issuer}") String issuer
     ){
-        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.keyRing = keyRing;
         this.accessTokenValidityMs = accessTokenValidityMs;
         this.issuer = issuer;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyRing.getPublicKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .requireIssuer(issuer)
+                .build();
     }
 
     public String generateAccessToken(String userId, Map<String, Object> extraClaims) {
+        return issueAccessToken(userId, extraClaims).getValue();
+    }
+
+    /** Like {@link #generateAccessToken} but also returns the jti and expiry the token was signed with. */
+    public IssuedAccessToken issueAccessToken(String userId, Map<String, Object> extraClaims) {
         long now = System.currentTimeMillis();
-        return Jwts.builder()
+        String tokenId = UUID.randomUUID().toString();
+        Date expiresAt = new Date(now + accessTokenValidityMs);
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid())
                 .setClaims(extraClaims)
                 .setSubject(userId)  // sub = userId
+                .setId(tokenId)      // jti, so the token can be revoked before exp
                 .setIssuer(issuer)
                 .setIssuedAt(new Date(now))
-                .setExpiration(new Date(now + accessTokenValidityMs))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .setExpiration(expiresAt)
+                .signWith(keyRing.getSigningKey(), SignatureAlgorithm.ES256)
                 .compact();
+        return new IssuedAccessToken(token, tokenId, expiresAt.toInstant());
+    }
+
+    /**
+     * Parses and verifies the token in one pass.
+     *
+     * @throws InvalidTokenException if the signature, issuer or expiry check fails
+     */
+    public JwtPrincipal verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid access token");
+        }
+        return new JwtPrincipal(
+                claims.getSubject(),
+                claims.getIssuer(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims
+        );
     }
 
     public boolean isValid(String token) {
         try {
-            parseAllClaims(token);
+            verify(token);
             return true;
-        } catch (Exception e) {
+        } catch (InvalidTokenException e) {
             return false;
         }
     }
 
     public String getSubject(String token) {
-        return parseAllClaims(token).getSubject();
-    }
-
-    private Claims parseAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .requireIssuer(issuer)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token).getSubject();
     }
 }
@@ -0,0 +1,41 @@
+-- Schema as previously created by hibernate ddl-auto. Existing databases are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+CREATE TABLE IF NOT EXISTS auth.users (
+    id            uuid         NOT NULL PRIMARY KEY,
+    email         varchar(255) NOT NULL UNIQUE,
+    password_hash varchar(255) NOT NULL,
+    full_name     varchar(255) NOT NULL,
+    date_of_birth date         NOT NULL,
+    city          varchar(255) NOT NULL,
+    country       varchar(255) NOT NULL,
+    pincode       varchar(255) NOT NULL,
+    gender        varchar(255) NOT NULL,
+    is_verified   boolean      NOT NULL DEFAULT false,
+    created_at    timestamp(6) NOT NULL,
+    updated_at    timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS auth.user_tokens (
+    id         uuid         NOT NULL PRIMARY KEY,
+    token      varchar(255) NOT NULL UNIQUE,
+    type       varchar(255),
+    is_used    boolean      NOT NULL DEFAULT false,
+    expires_at timestamp(6) NOT NULL,
+    created_at timestamp(6),
+    user_id    uuid         NOT NULL REFERENCES auth.users (id)
+);
+
+CREATE TABLE IF NOT EXISTS auth.mail_outbox (
+    id              uuid          NOT NULL PRIMARY KEY,
+    recipient       varchar(255)  NOT NULL,
+    subject         varchar(255)  NOT NULL,
+    html_body       text          NOT NULL,
+    status          varchar(16)   NOT NULL,
+    attempts        integer       NOT NULL,
+    next_attempt_at timestamp(6)  NOT NULL,
+    last_error      varchar(1000),
+    created_at      timestamp(6)  NOT NULL,
+    sent_at         timestamp(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_pending ON auth.mail_outbox (status, next_attempt_at);
@@ -0,0 +1,35 @@
+-- user_tokens: 36-char UUID string + free-form type  ->  32-byte SHA-256 digest + smallint code.
+-- Outstanding tokens keep working: the digest is computed over the same UTF-8 string the
+-- client holds, exactly as TokenService.hash does.
+
+-- Used and expired rows can never be redeemed again; don't carry them over.
+DELETE FROM auth.user_tokens WHERE is_used OR expires_at <= now();
+
+ALTER TABLE auth.user_tokens
+    ADD COLUMN token_hash bytea,
+    ADD COLUMN type_code  smallint;
+
+UPDATE auth.user_tokens
+SET token_hash = sha256(convert_to(token, 'UTF8')),
+    type_code  = CASE type
+                     WHEN 'VERIFICATION'   THEN 1
+                     WHEN 'RESET_PASSWORD' THEN 2
+                     WHEN 'REFRESH'        THEN 3
+                 END;
+
+-- Rows with an unknown type were unusable before the migration as well
+DELETE FROM auth.user_tokens WHERE type_code IS NULL;
+
+ALTER TABLE auth.user_tokens
+    DROP COLUMN token,
+    DROP COLUMN type;
+
+ALTER TABLE auth.user_tokens RENAME COLUMN type_code TO type;
+
+ALTER TABLE auth.user_tokens
+    ALTER COLUMN token_hash SET NOT NULL,
+    ALTER COLUMN type SET NOT NULL,
+    ADD CONSTRAINT ck_user_tokens_hash_len CHECK (octet_length(token_hash) = 32);
+
+-- Serves findByTokenHashAndType(AndIsUsedFalse) and the refresh consume UPDATE
+CREATE UNIQUE INDEX ux_user_tokens_hash_type ON auth.user_tokens (token_hash, type);
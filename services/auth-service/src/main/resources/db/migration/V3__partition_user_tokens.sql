@@ -0,0 +1,51 @@
+-- Range-partition user_tokens by expires_at, one partition per day. Expiry becomes
+-- DROP TABLE of a whole day (see UserTokenPartitionMaintainer) instead of DELETEs.
+--
+-- Primary key and unique indexes on a partitioned table must contain the partition
+-- key, hence (id, expires_at) and (token_hash, type, expires_at). The digest is of a
+-- 256-bit random value, so uniqueness in practice is unchanged.
+
+ALTER TABLE auth.user_tokens RENAME TO user_tokens_unpartitioned;
+ALTER INDEX auth.ux_user_tokens_hash_type RENAME TO ux_user_tokens_hash_type_unpartitioned;
+
+CREATE TABLE auth.user_tokens (
+    id         uuid         NOT NULL,
+    token_hash bytea        NOT NULL CHECK (octet_length(token_hash) = 32),
+    type       smallint     NOT NULL,
+    is_used    boolean      NOT NULL DEFAULT false,
+    expires_at timestamp(6) NOT NULL,
+    created_at timestamp(6),
+    user_id    uuid         NOT NULL REFERENCES auth.users (id),
+    PRIMARY KEY (id, expires_at)
+) PARTITION BY RANGE (expires_at);
+
+CREATE UNIQUE INDEX ux_user_tokens_hash_type ON auth.user_tokens (token_hash, type, expires_at);
+
+-- Catches anything beyond the pre-created range so inserts never fail; the
+-- maintainer keeps the daily partitions ahead of the longest token validity.
+CREATE TABLE auth.user_tokens_default PARTITION OF auth.user_tokens DEFAULT;
+
+DO $$
+DECLARE
+    last_day date;
+    day      date;
+BEGIN
+    SELECT greatest(coalesce(max(expires_at)::date, current_date), current_date + 7)
+    INTO last_day
+    FROM auth.user_tokens_unpartitioned;
+
+    day := current_date;
+    WHILE day <= last_day LOOP
+        EXECUTE format(
+            'CREATE TABLE auth.%I PARTITION OF auth.user_tokens FOR VALUES FROM (%L) TO (%L)',
+            'user_tokens_p' || to_char(day, 'YYYYMMDD'), day, day + 1);
+        day := day + 1;
+    END LOOP;
+END $$;
+
+INSERT INTO auth.user_tokens (id, token_hash, type, is_used, expires_at, created_at, user_id)
+SELECT id, token_hash, type, is_used, expires_at, created_at, user_id
+FROM auth.user_tokens_unpartitioned
+WHERE NOT is_used AND expires_at > now();
+
+DROP TABLE auth.user_tokens_unpartitioned;
@@ -0,0 +1,14 @@
+-- Auth events waiting to be published to Kafka (see AuthEventRelay). Rows are
+-- written in the transaction that makes the change and deleted once the broker
+-- has acknowledged them, so the table stays small. Ids are UUIDv7 and the relay
+-- publishes in id order; AuthEventPublisher makes one user's ids increase in
+-- commit order.
+
+CREATE TABLE auth.event_outbox (
+    id             uuid         PRIMARY KEY,
+    event_type     varchar(32)  NOT NULL,
+    schema_version smallint     NOT NULL,
+    user_id        uuid         NOT NULL,
+    payload        bytea        NOT NULL,
+    created_at     timestamp(6) NOT NULL
+);
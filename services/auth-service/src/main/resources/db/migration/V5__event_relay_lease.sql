@@ -0,0 +1,11 @@
+-- Which replica relays auth.event_outbox (see AuthEventRelay). A lease row rather than
+-- an advisory lock, so no transaction or connection stays open while the relay waits
+-- on the broker. A holder that dies is replaced once its lease runs out.
+
+CREATE TABLE auth.event_relay_lease (
+    name         varchar(32)  PRIMARY KEY,
+    holder       uuid,
+    leased_until timestamptz  NOT NULL
+);
+
+INSERT INTO auth.event_relay_lease (name, leased_until) VALUES ('auth_event_relay', '-infinity');
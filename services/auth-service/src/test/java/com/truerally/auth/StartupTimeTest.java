@@ -0,0 +1,84 @@
+package com.truerally.auth;
+
+import com.truerally.AuthServiceApplication;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the service with the prod profile against a migrated-from-empty Postgres and
+ * records the time until it reports ready. The number is appended to
+ * target/startup/time-to-ready.csv so CI can chart it; the assertion only catches
+ * large regressions. Override the budget with -Dstartup.budget-ms=...
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class StartupTimeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeTest.class);
+
+    private static final long BUDGET_MS = Long.getLong("startup.budget-ms", 45_000);
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Test
+    void prodProfileIsReadyWithinBudget() throws IOException {
+        AtomicLong readyAt = new AtomicLong();
+        SpringApplication application = new SpringApplication(AuthServiceApplication.class);
+        application.setAdditionalProfiles("prod");
+        application.addListeners((ApplicationListener<ApplicationReadyEvent>) event -> readyAt.set(System.nanoTime()));
+
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = application.run(
+                "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+                "--spring.datasource.username=" + POSTGRES.getUsername(),
+                "--spring.datasource.password=" + POSTGRES.getPassword(),
+                "--server.port=0",
+                "--security.password.bcrypt-strength=10",
+                // prod refuses to start without shared signing keys; a generated one times the same
+                "--jwt.signing.allow-ephemeral-key=true",
+                "--mail.outbox.poll-interval-ms=600000",
+                // no broker here: skip topic creation and the per-replica consumer
+                "--spring.kafka.admin.auto-create=false",
+                "--auth-events.relay.enabled=false",
+                "--auth-events.consumer.enabled=false",
+                // warm-up has a fixed budget and its own metric; measure the boot itself
+                "--warmup.enabled=false")) {
+
+            assertEquals(ReadinessState.ACCEPTING_TRAFFIC,
+                    context.getBean(ApplicationAvailability.class).getReadinessState());
+            long elapsedMs = (readyAt.get() - start) / 1_000_000;
+            record(elapsedMs);
+            assertTrue(elapsedMs < BUDGET_MS,
+                    "time-to-ready " + elapsedMs + "ms exceeds budget of " + BUDGET_MS + "ms");
+        }
+    }
+
+    private static void record(long elapsedMs) throws IOException {
+        Path out = Path.of("target", "startup", "time-to-ready.csv");
+        Files.createDirectories(out.getParent());
+        if (Files.notExists(out)) {
+            Files.writeString(out, "timestamp,profile,time_to_ready_ms\n");
+        }
+        Files.writeString(out, Instant.now() + ",prod," + elapsedMs + "\n", StandardOpenOption.APPEND);
+        log.info("event=startup_measured profile=prod time_to_ready_ms={}", elapsedMs);
+    }
+}
@@ -0,0 +1,113 @@
+package com.truerally.auth.security;
+
+import com.truerally.auth.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessTokenDenylistTest {
+
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry registry;
+    private AccessTokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(JwtKeyRing.ephemeral(), 300_000, "truerally-auth");
+        registry = new SimpleMeterRegistry();
+        denylist = new AccessTokenDenylist(1_000, registry);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void everyAccessTokenCarriesItsOwnId() {
+        JwtPrincipal first = jwtUtil.verify(jwtUtil.generateAccessToken("user-1", Map.of()));
+        JwtPrincipal second = jwtUtil.verify(jwtUtil.generateAccessToken("user-1", Map.of()));
+
+        assertNotNull(first.getTokenId());
+        assertNotEquals(first.getTokenId(), second.getTokenId());
+    }
+
+    @Test
+    void revokedTokenIsDeniedUntilItExpires() {
+        JwtPrincipal revoked = jwtUtil.verify(jwtUtil.generateAccessToken("user-1", Map.of()));
+        JwtPrincipal other = jwtUtil.verify(jwtUtil.generateAccessToken("user-1", Map.of()));
+
+        denylist.onRevoked(new AccessTokenRevokedEvent(revoked.getTokenId(), "user-1", revoked.getExpiresAt()));
+
+        assertTrue(denylist.isRevoked(revoked));
+        assertFalse(denylist.isRevoked(other));
+        assertEquals(1.0, registry.get("auth.jwt.denied").counter().count());
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotStored() {
+        JwtPrincipal principal = jwtUtil.verify(jwtUtil.generateAccessToken("user-1", Map.of()));
+
+        denylist.revoke(principal.getTokenId(), Instant.now().minusSeconds(1));
+
+        assertFalse(denylist.isRevoked(principal));
+    }
+
+    @Test
+    void revocationsPastTheAlertThresholdAreKeptNotEvicted() {
+        AccessTokenDenylist small = new AccessTokenDenylist(2, registry);
+        List<JwtPrincipal> principals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            JwtPrincipal principal = jwtUtil.verify(jwtUtil.generateAccessToken("user-" + i, Map.of()));
+            small.revoke(principal.getTokenId(), principal.getExpiresAt());
+            principals.add(principal);
+        }
+
+        for (JwtPrincipal principal : principals) {
+            assertTrue(small.isRevoked(principal), principal.getSubject());
+        }
+        assertEquals(3.0, registry.get("auth.jwt.denylist.over_alert").counter().count());
+    }
+
+    @Test
+    void filterRejectsARevokedTokenEvenWhenItIsCachedAsVerified() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1_000, registry);
+        JwtAuthFilter filter = new JwtAuthFilter(jwtUtil, cache, denylist);
+        String token = jwtUtil.generateAccessToken("user-1", Map.of());
+
+        assertEquals("user-1", authenticate(filter, token).getName());
+
+        JwtPrincipal principal = cache.get(token, jwtUtil::verify);
+        denylist.revoke(principal.getTokenId(), principal.getExpiresAt());
+
+        assertNull(authenticate(filter, token));
+    }
+
+    private static Authentication authenticate(JwtAuthFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/players/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(SecurityContextHolder.getContext().getAuthentication());
+            }
+        });
+        return seen.get();
+    }
+}
@@ -0,0 +1,95 @@
+package com.truerally.auth.security;
+
+import com.truerally.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void shedsImmediatelyWhenQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 1, 1, 10_000, registry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        awaitQueueDepth(1);
+
+        long start = System.nanoTime();
+        assertThrows(ServiceOverloadedException.class, () -> encoder.encode("c"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500, "rejection must not wait");
+        assertEquals(1.0, registry.get("auth.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void givesUpAfterMaxWait() {
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 1, 4, 100, registry);
+
+        assertThrows(ServiceOverloadedException.class, () -> encoder.matches("a", "hash:a"));
+    }
+
+    @Test
+    void delegatesWhenIdle() {
+        release.countDown();
+        encoder = new BoundedPasswordEncoder(blockingDelegate(), 2, 4, 1_000, registry);
+
+        assertEquals("hash:x", encoder.encode("x"));
+        assertTrue(encoder.matches("x", "hash:x"));
+        assertEquals(1L, registry.get("auth.password.hash").tag("op", "encode").timer().count());
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (registry.get("auth.password.hash.queue").gauge().value() < depth) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("queue never reached " + depth);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private PasswordEncoder blockingDelegate() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return ("hash:" + rawPassword).equals(encodedPassword);
+            }
+
+            private void await() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.truerally.auth.security;
+
+import com.truerally.auth.config.JwtKeyProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    @Test
+    void refusesToStartWithoutKeysUnlessEphemeralKeysAreAllowed() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> new JwtKeyRing(new JwtKeyProperties()));
+        assertTrue(ex.getMessage().contains("jwt.signing.allow-ephemeral-key"));
+    }
+
+    @Test
+    void ephemeralKeyIsUsableAndPublished() {
+        JwtKeyRing ring = JwtKeyRing.ephemeral();
+
+        assertTrue(ring.getActiveKid().startsWith("ephemeral-"));
+        assertNotNull(ring.getSigningKey());
+        assertNotNull(ring.getPublicKey(ring.getActiveKid()));
+        assertNotEquals(ring.getActiveKid(), JwtKeyRing.ephemeral().getActiveKid());
+    }
+}
@@ -0,0 +1,167 @@
+package com.truerally.auth.security;
+
+import com.truerally.auth.config.LoginThrottleProperties;
+import com.truerally.common.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private LoginThrottle throttle(int emailCapacity, int emailPerMinute, int ipCapacity, int ipPerMinute) {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setEmail(new LoginThrottleProperties.Limit(emailCapacity, emailPerMinute));
+        properties.setIp(new LoginThrottleProperties.Limit(ipCapacity, ipPerMinute));
+        return new LoginThrottle(properties, registry, clock::get);
+    }
+
+    @Test
+    void accountIsThrottledAfterBurstAndRecoversAtRefillRate() {
+        LoginThrottle throttle = throttle(3, 6, 100, 100);   // one permit every 10s after the burst
+
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("victim@truerally.dev", "10.0.0." + i);
+        }
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("Victim@TrueRally.dev ", "10.0.0.9"));
+        assertEquals(10, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("auth.login.throttled").tag("key", "email").counter().count());
+
+        clock.addAndGet(9_000);
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("victim@truerally.dev", "10.0.0.9"));
+        clock.addAndGet(1_000);
+        throttle.acquire("victim@truerally.dev", "10.0.0.9");
+    }
+
+    @Test
+    void frequentCallersStillAccumulateRefill() {
+        LoginThrottle throttle = throttle(1, 6, 100, 100);
+        throttle.acquire("a@truerally.dev", null);
+
+        // Rejected every 100ms for 10s; the fractions must add up to the next permit
+        for (int i = 0; i < 99; i++) {
+            clock.addAndGet(100);
+            assertThrows(TooManyRequestsException.class, () -> throttle.acquire("a@truerally.dev", null));
+        }
+        clock.addAndGet(100);
+        throttle.acquire("a@truerally.dev", null);
+    }
+
+    @Test
+    void clientAddressIsLimitedAcrossAccounts() {
+        LoginThrottle throttle = throttle(100, 100, 2, 1);
+
+        throttle.acquire("one@truerally.dev", "203.0.113.7");
+        throttle.acquire("two@truerally.dev", "203.0.113.7");
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("three@truerally.dev", "203.0.113.7"));
+        throttle.acquire("three@truerally.dev", "203.0.113.8");
+        assertEquals(1.0, registry.get("auth.login.throttled").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void idleBucketsAreSweptAndTableIsBounded() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setMaxEntries(4);
+        LoginThrottle throttle = new LoginThrottle(properties, registry, clock::get);
+
+        throttle.acquire("a@truerally.dev", "10.0.0.1");
+        throttle.acquire("b@truerally.dev", "10.0.0.2");
+        throttle.acquire("c@truerally.dev", "10.0.0.3");   // table full: overflow buckets
+        assertEquals(4, throttle.size());
+        assertEquals(2.0, registry.get("auth.login.throttle.overflow").counter().count());
+
+        clock.addAndGet(1_000);
+        throttle.evictIdle();
+        assertEquals(4, throttle.size());                // not yet refilled
+
+        clock.addAndGet(60_000);
+        throttle.evictIdle();
+        assertEquals(0, throttle.size());
+        assertEquals(4.0, registry.get("auth.login.throttle.evicted").counter().count());
+    }
+
+    @Test
+    void newKeysAreStillThrottledOnceTheTableIsFull() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        properties.setEmail(new LoginThrottleProperties.Limit(3, 1));
+        properties.setMaxEntries(1);
+        properties.setOverflowStripes(1);
+        LoginThrottle throttle = new LoginThrottle(properties, registry, clock::get);
+
+        throttle.acquire("first@truerally.dev", null);     // takes the only table slot
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("spray" + i + "@truerally.dev", null);
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("spray9@truerally.dev", null));
+        assertEquals(1, throttle.size());
+
+        clock.addAndGet(60_000);
+        throttle.acquire("spray10@truerally.dev", null);
+    }
+
+    @Test
+    void contendedBucketNeverOverGrants() throws Exception {
+        LoginThrottle throttle = throttle(4_000, 1, 4_000, 1);
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        LongAdder granted = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2_000; i++) {
+                        try {
+                            throttle.acquire("shared@truerally.dev", null);
+                            granted.increment();
+                        } catch (TooManyRequestsException ignored) {
+                            // expected once the burst is spent
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        assertEquals(4_000, granted.sum());
+    }
+
+    @Test
+    void independentKeysDoNotContend() throws Exception {
+        LoginThrottle throttle = throttle(4_000, 1, 4_000, 1);
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                String email = "player" + t + "@truerally.dev";
+                String ip = "10.1.0." + t;
+                futures[t] = pool.submit(() -> {
+                    for (int i = 0; i < 4_000; i++) {
+                        throttle.acquire(email, ip);   // every permit must be granted
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        assertEquals(threads * 2, throttle.size());
+    }
+}
@@ -0,0 +1,26 @@
+package com.truerally.auth.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashCalibratorTest {
+
+    @Test
+    void unreachableTargetFallsBackToMinStrength() {
+        assertEquals(4, PasswordHashCalibrator.calibrateBCrypt(0, 4, 6));
+    }
+
+    @Test
+    void generousTargetStopsAtMaxStrength() {
+        assertEquals(6, PasswordHashCalibrator.calibrateBCrypt(60_000, 4, 6));
+    }
+
+    @Test
+    void chosenStrengthStaysWithinBounds() {
+        for (long targetMs : new long[]{1, 5, 20}) {
+            int strength = PasswordHashCalibrator.calibrateBCrypt(targetMs, 4, 7);
+            assertTrue(strength >= 4 && strength <= 7, "target " + targetMs + "ms gave strength " + strength);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.truerally.auth.security;
+
+import com.truerally.auth.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil(JwtKeyRing.ephemeral(), 300_000, "truerally-auth");
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(1_000, new SimpleMeterRegistry(), clock::get);
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final Function<String, JwtPrincipal> verifier = token -> {
+        verifications.incrementAndGet();
+        return jwtUtil.verify(token);
+    };
+
+    @Test
+    void servesAVerifiedTokenUntilExactlyItsExpiry() {
+        String token = jwtUtil.generateAccessToken("user-1", Map.of());
+        JwtPrincipal principal = cache.get(token, verifier);
+        assertSame(principal, cache.get(token, verifier));
+        assertEquals(1, verifications.get());
+
+        clock.set(principal.getExpiresAt().toEpochMilli() - 1);
+        assertSame(principal, cache.get(token, verifier));
+        assertEquals(1, verifications.get());
+
+        clock.set(principal.getExpiresAt().toEpochMilli());
+        cache.get(token, verifier);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void tamperedTokenIsVerifiedAgainAndNeverServedFromTheCache() {
+        String token = jwtUtil.generateAccessToken("user-1", Map.of());
+        cache.get(token, verifier);
+        String tampered = tamper(token);
+
+        assertThrows(RuntimeException.class, () -> cache.get(tampered, verifier));
+        assertThrows(RuntimeException.class, () -> cache.get(tampered, verifier));
+        assertEquals(3, verifications.get(), "failed verifications must not be cached");
+        assertEquals(1, cache.keys().size());
+    }
+
+    @Test
+    void keysAreDigestsOfTheWholeToken() {
+        String token = jwtUtil.generateAccessToken("user-1", Map.of());
+        cache.get(token, verifier);
+
+        assertEquals(Set.of(VerifiedTokenCache.TokenDigest.of(token)), cache.keys());
+        assertNotEquals(VerifiedTokenCache.TokenDigest.of(token), VerifiedTokenCache.TokenDigest.of(tamper(token)));
+
+        cache.invalidate(token);
+        assertTrue(cache.keys().isEmpty());
+    }
+
+    /** Flips one character well inside the signature, where every bit counts. */
+    private static String tamper(String token) {
+        int at = token.length() - 10;
+        char replacement = token.charAt(at) == 'A' ? 'B' : 'A';
+        return token.substring(0, at) + replacement + token.substring(at + 1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.truerally.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.truerally.auth.security.AccessTokenDenylist;
+import com.truerally.common.events.AuthEvent;
+import com.truerally.common.events.AuthEventHeaders;
+import com.truerally.common.events.SessionRevoked;
+import com.truerally.common.events.UserRegistered;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthEventConsumerTest {
+
+    private final AuthEventCodec codec = new AuthEventCodec(new ObjectMapper().registerModule(new JavaTimeModule()));
+    private final AccessTokenDenylist denylist = mock(AccessTokenDenylist.class);
+    private final RegisteredEmailFilter registeredEmails = mock(RegisteredEmailFilter.class);
+    private final AuthEventConsumer consumer = new AuthEventConsumer(denylist, registeredEmails, codec, 300_000);
+
+    @Test
+    void appliesRevocationsAndRegistrationsFromOtherReplicas() throws Exception {
+        UUID user = UUID.randomUUID();
+        Instant exp = Instant.now().plusSeconds(120);
+
+        consumer.onEvents(List.of(
+                record(new SessionRevoked(user, "jti-1", exp, Instant.now())),
+                record(new UserRegistered(user, "ana@truerally.dev", "Ana", LocalDate.of(1995, 5, 17),
+                        "F", "Pune", "IN", "411001", Instant.now()))));
+
+        verify(denylist).revoke("jti-1", exp);
+        verify(registeredEmails).add("ana@truerally.dev");
+    }
+
+    @Test
+    void wireFormatUsesIsoDatesAndToleratesNewFields() throws Exception {
+        UUID user = UUID.randomUUID();
+        String json = new String(codec.encode(new SessionRevoked(user, null, null, Instant.parse("2026-05-01T10:15:30Z"))),
+                StandardCharsets.UTF_8);
+
+        assertEquals("{\"userId\":\"" + user + "\",\"occurredAt\":\"2026-05-01T10:15:30Z\"}", json);
+        SessionRevoked decoded = codec.decode(
+                json.replace("}", ",\"device\":\"ios\"}").getBytes(StandardCharsets.UTF_8), SessionRevoked.class);
+        assertEquals(user, decoded.userId());
+    }
+
+    @Test
+    void skipsUnreadableAndUnknownRecords() throws Exception {
+        ConsumerRecord<String, byte[]> garbled = new ConsumerRecord<>(AuthEvent.TOPIC, 0, 0L, "k",
+                "not json".getBytes(StandardCharsets.UTF_8));
+        garbled.headers().add(AuthEventHeaders.EVENT_TYPE, "SessionRevoked".getBytes(StandardCharsets.UTF_8));
+        ConsumerRecord<String, byte[]> future = new ConsumerRecord<>(AuthEvent.TOPIC, 0, 1L, "k",
+                "{}".getBytes(StandardCharsets.UTF_8));
+        future.headers().add(AuthEventHeaders.EVENT_TYPE, "PasswordChanged".getBytes(StandardCharsets.UTF_8));
+
+        consumer.onEvents(List.of(garbled, future));
+
+        verifyNoInteractions(denylist, registeredEmails);
+    }
+
+    private ConsumerRecord<String, byte[]> record(AuthEvent event) throws Exception {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(AuthEvent.TOPIC, 0, 0L,
+                event.userId().toString(), codec.encode(event));
+        record.headers().add(AuthEventHeaders.EVENT_TYPE, event.type().wireName().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
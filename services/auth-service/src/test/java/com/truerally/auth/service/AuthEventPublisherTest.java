@@ -0,0 +1,64 @@
+package com.truerally.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.truerally.auth.model.EventOutbox;
+import com.truerally.auth.repository.EventOutboxRepository;
+import com.truerally.common.events.SessionStarted;
+import com.truerally.common.events.UserRegistered;
+import com.truerally.common.events.UserVerified;
+import com.truerally.common.persistence.UuidV7;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AuthEventPublisherTest {
+
+    private final EventOutboxRepository outboxRepository = mock(EventOutboxRepository.class);
+    private final AuthEventPublisher publisher = new AuthEventPublisher(outboxRepository,
+            new AuthEventCodec(new ObjectMapper().registerModule(new JavaTimeModule())));
+    private final UUID user = UUID.randomUUID();
+
+    @Test
+    void laterEventsAreStampedFromTheDatabaseClockUnderTheUserLock() {
+        long micros = 1_760_000_000_123_456L;
+        // the second writer got the lock a microsecond after the first committed
+        when(outboxRepository.lockUserEvents(user)).thenReturn(micros, micros + 1);
+
+        publisher.publish(new UserVerified(user, Instant.now()));
+        publisher.publish(new SessionStarted(user, "jti-1", Instant.now().plusSeconds(300), false, Instant.now()));
+
+        InOrder order = inOrder(outboxRepository);
+        order.verify(outboxRepository).lockUserEvents(user);
+        order.verify(outboxRepository).save(any(EventOutbox.class));
+        List<EventOutbox> rows = saved(2);
+        assertEquals(micros / 1000, UuidV7.timestamp(rows.get(0).getId()));
+        assertTrue(rows.get(0).getId().compareTo(rows.get(1).getId()) < 0);
+    }
+
+    @Test
+    void registrationTakesNoLock() {
+        publisher.publish(new UserRegistered(user, "ana@truerally.dev", "Ana", LocalDate.of(1995, 5, 17),
+                "F", "Pune", "IN", "411001", Instant.now()));
+
+        verify(outboxRepository, never()).lockUserEvents(any());
+        EventOutbox row = saved(1).get(0);
+        assertEquals(7, row.getId().version());
+        assertTrue(row.isNew(), "an assigned id must still insert rather than merge");
+    }
+
+    private List<EventOutbox> saved(int count) {
+        ArgumentCaptor<EventOutbox> rows = ArgumentCaptor.forClass(EventOutbox.class);
+        verify(outboxRepository, times(count)).save(rows.capture());
+        return rows.getAllValues();
+    }
+}
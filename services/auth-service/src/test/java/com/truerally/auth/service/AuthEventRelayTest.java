@@ -0,0 +1,186 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.config.AuthEventProperties;
+import com.truerally.auth.model.EventOutbox;
+import com.truerally.auth.repository.EventOutboxRepository;
+import com.truerally.common.events.AuthEvent;
+import com.truerally.common.events.AuthEventHeaders;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuthEventRelayTest {
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    private EventOutboxRepository repository;
+    private AuthEventProperties properties;
+    private SimpleMeterRegistry registry;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 2, AuthEvent.TOPIC);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EventOutboxRepository.class);
+        when(repository.tryLease(any(), anyLong())).thenReturn(1);
+        properties = new AuthEventProperties();
+        properties.getRelay().setBatchSize(10);
+        properties.getRelay().setSendTimeoutMs(5_000);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void publishesTheBatchInOrderThenDeletesIt() {
+        UUID user = UUID.randomUUID();
+        List<EventOutbox> batch = List.of(
+                event(user, "SessionStarted", "{\"n\":1}"),
+                event(user, "SessionStarted", "{\"n\":2}"),
+                event(user, "SessionRevoked", "{\"n\":3}"));
+        when(repository.findOldest(10)).thenReturn(batch);
+
+        try (Consumer<String, byte[]> consumer = consumer()) {
+            assertEquals(3, relay(producer(broker.getBrokersAsString())).relayBatch());
+
+            List<ConsumerRecord<String, byte[]>> received = poll(consumer, 3);
+            assertEquals(3, received.size());
+            for (int i = 0; i < 3; i++) {
+                ConsumerRecord<String, byte[]> record = received.get(i);
+                assertEquals(user.toString(), record.key());
+                assertEquals("{\"n\":" + (i + 1) + "}", new String(record.value(), StandardCharsets.UTF_8));
+                assertEquals(batch.get(i).getId().toString(), header(record, AuthEventHeaders.EVENT_ID));
+                assertEquals(batch.get(i).getEventType(), header(record, AuthEventHeaders.EVENT_TYPE));
+                assertEquals("1", header(record, AuthEventHeaders.SCHEMA_VERSION));
+            }
+        }
+
+        verify(repository).deleteByIds(List.of(batch.get(0).getId(), batch.get(1).getId(), batch.get(2).getId()));
+        assertEquals(2.0, registry.get("auth.events.published").tag("type", "SessionStarted").counter().count());
+    }
+
+    @Test
+    void unreachableBrokerLeavesTheBatchInTheOutbox() {
+        when(repository.findOldest(10)).thenReturn(List.of(event(UUID.randomUUID(), "UserVerified", "{}")));
+
+        assertEquals(0, relay(producer("localhost:1")).relayBatch());
+
+        verify(repository, never()).deleteByIds(any());
+        assertEquals(1.0, registry.get("auth.events.relay.failures").counter().count());
+    }
+
+    @Test
+    void unreachableBrokerEndsTheBatchAtTheFirstFailedSend() {
+        List<EventOutbox> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(event(UUID.randomUUID(), "UserVerified", "{}"));
+        }
+        when(repository.findOldest(10)).thenReturn(batch);
+
+        long start = System.nanoTime();
+        assertEquals(0, relay(producer("localhost:1")).relayBatch());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // one max.block.ms (1s here), not one per record
+        assertTrue(elapsedMs < 4_000, "took " + elapsedMs + "ms");
+        verify(repository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void anotherReplicaHoldingTheLeaseIsNotAnError() {
+        when(repository.tryLease(any(), anyLong())).thenReturn(0);
+
+        assertEquals(0, relay(producer(broker.getBrokersAsString())).relayBatch());
+
+        verify(repository, never()).findOldest(anyInt());
+        assertEquals(0.0, registry.get("auth.events.relay.failures").counter().count());
+    }
+
+    private AuthEventRelay relay(KafkaTemplate<String, byte[]> template) {
+        return new AuthEventRelay(repository, template,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), properties, registry);
+    }
+
+    private static KafkaTemplate<String, byte[]> producer(String bootstrapServers) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1_000);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+
+    private static Consumer<String, byte[]> consumer() {
+        Map<String, Object> config = KafkaTestUtils.consumerProps("relay-test-" + UUID.randomUUID(), "false", broker);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, AuthEvent.TOPIC);
+        return consumer;
+    }
+
+    private static List<ConsumerRecord<String, byte[]>> poll(Consumer<String, byte[]> consumer, int expected) {
+        List<ConsumerRecord<String, byte[]>> received = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (received.size() < expected && System.currentTimeMillis() < deadline) {
+            ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(200));
+            records.forEach(received::add);
+        }
+        return received;
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private static EventOutbox event(UUID userId, String type, String payload) {
+        EventOutbox event = new EventOutbox();
+        event.setId(UUID.randomUUID());
+        event.setUserId(userId);
+        event.setEventType(type);
+        event.setSchemaVersion((short) 1);
+        event.setPayload(payload.getBytes(StandardCharsets.UTF_8));
+        return event;
+    }
+}
@@ -0,0 +1,97 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.config.SecurityConfig;
+import com.truerally.auth.dto.LoginRequest;
+import com.truerally.auth.model.User;
+import com.truerally.auth.repository.MailOutboxRepository;
+import com.truerally.auth.repository.UserRepository;
+import com.truerally.auth.repository.UserTokenRepository;
+import com.truerally.auth.security.JwtKeyRing;
+import com.truerally.auth.util.EmailTemplateBuilder;
+import com.truerally.auth.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/** Login rewrites a stored hash only when that raises its BCrypt work factor. */
+class LoginRehashTest {
+
+    private static final String PASSWORD = "Correct-Horse-9";
+    private static final int CURRENT_STRENGTH = 5;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = SecurityConfig.bcryptEncoder(CURRENT_STRENGTH);
+    private final AuthServiceImpl authService = new AuthServiceImpl(
+            userRepository,
+            mock(UserTokenRepository.class),
+            mock(MailOutboxRepository.class),
+            mock(EmailTemplateBuilder.class),
+            passwordEncoder,
+            new TokenService(),
+            mock(RegisteredEmailFilter.class),
+            mock(UserClaimsCache.class),
+            new JwtUtil(JwtKeyRing.ephemeral(), 300_000, "truerally-auth"),
+            mock(ApplicationEventPublisher.class),
+            mock(AuthEventPublisher.class),
+            mock(TransactionTemplate.class));
+
+    @Test
+    void weakerHashIsUpgradedToTheCurrentStrength() {
+        User user = login("{bcrypt}" + bcrypt(4));
+
+        verify(userRepository).save(user);
+        assertTrue(user.getPassword().startsWith("{bcrypt}$2a$05$"), user.getPassword());
+        assertTrue(passwordEncoder.matches(PASSWORD, user.getPassword()));
+    }
+
+    @Test
+    void weakerLegacyHashIsUpgradedAndPrefixed() {
+        User user = login(bcrypt(4));
+
+        verify(userRepository).save(user);
+        assertTrue(user.getPassword().startsWith("{bcrypt}$2a$05$"), user.getPassword());
+    }
+
+    @Test
+    void currentHashIsLeftAlone() {
+        String stored = "{bcrypt}" + bcrypt(CURRENT_STRENGTH);
+
+        assertEquals(stored, login(stored).getPassword());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void strongerHashesAreNeverDowngraded() {
+        String prefixed = "{bcrypt}" + bcrypt(6);
+        String legacy = bcrypt(6);
+
+        assertEquals(prefixed, login(prefixed).getPassword());
+        assertEquals(legacy, login(legacy).getPassword());
+        verify(userRepository, never()).save(any());
+    }
+
+    private User login(String storedHash) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("ana@truerally.dev");
+        user.setFullName("Ana");
+        user.setPassword(storedHash);
+        user.setVerified(true);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        authService.login(new LoginRequest(user.getEmail(), PASSWORD));
+        return user;
+    }
+
+    private static String bcrypt(int strength) {
+        return new BCryptPasswordEncoder(strength).encode(PASSWORD);
+    }
+}
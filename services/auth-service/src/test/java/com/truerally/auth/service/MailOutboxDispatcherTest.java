@@ -0,0 +1,119 @@
+package com.truerally.auth.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.truerally.auth.config.MailOutboxProperties;
+import com.truerally.auth.model.MailOutbox;
+import com.truerally.auth.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private MailOutboxRepository repository;
+    private MailOutboxProperties properties;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(MailOutboxRepository.class);
+        properties = new MailOutboxProperties();
+        properties.setBatchSize(10);
+        properties.setMaxAttempts(3);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void deliversClaimedBatchToSmtpServer() throws Exception {
+        MailOutbox first = outbox("first@truerally.dev", 0);
+        MailOutbox second = outbox("second@truerally.dev", 0);
+        when(repository.claimBatch(any(), any(), eq(10))).thenReturn(List.of(first, second));
+
+        int claimed = dispatcher(smtpSender(ServerSetupTest.SMTP.getPort())).dispatchBatch();
+
+        assertEquals(2, claimed);
+        assertTrue(smtp.waitForIncomingEmail(5_000, 2));
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertEquals("Verify your TrueRally account", received[0].getSubject());
+        assertTrue(GreenMailUtil.getBody(received[0]).contains("verify?token="));
+        verify(repository).markSent(eq(first.getId()), any());
+        verify(repository).markSent(eq(second.getId()), any());
+        assertEquals(2.0, registry.get("auth.mail.sent").counter().count());
+        assertEquals(2L, registry.get("auth.mail.send").timer().count());
+    }
+
+    @Test
+    void reschedulesWithBackoffWhenSmtpIsUnreachable() {
+        MailOutbox mail = outbox("retry@truerally.dev", 0);
+        when(repository.claimBatch(any(), any(), anyInt())).thenReturn(List.of(mail));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher(smtpSender(1)).dispatchBatch();
+
+        verify(repository).markRetry(eq(mail.getId()),
+                argThat(next -> next.isAfter(before.plusNanos(properties.getInitialBackoffMs() / 2 * 1_000_000 - 1))),
+                anyString());
+        verify(repository, never()).markSent(any(), any());
+        assertEquals(1.0, registry.get("auth.mail.send.failures").counter().count());
+    }
+
+    @Test
+    void deadLettersAfterMaxAttempts() {
+        MailOutbox mail = outbox("dead@truerally.dev", properties.getMaxAttempts() - 1);
+        when(repository.claimBatch(any(), any(), anyInt())).thenReturn(List.of(mail));
+
+        dispatcher(smtpSender(1)).dispatchBatch();
+
+        verify(repository).markDead(eq(mail.getId()), anyString());
+        verify(repository, never()).markRetry(any(), any(), any());
+        assertEquals(1.0, registry.get("auth.mail.dead_lettered").counter().count());
+    }
+
+    @Test
+    void backoffGrowsAndIsCapped() {
+        MailOutboxDispatcher dispatcher = dispatcher(smtpSender(1));
+        for (int attempt = 1; attempt <= 30; attempt++) {
+            long expected = Math.min(properties.getInitialBackoffMs() << Math.min(attempt - 1, 20), properties.getMaxBackoffMs());
+            long backoff = dispatcher.backoffMs(attempt);
+            assertTrue(backoff >= expected / 2 && backoff <= expected, "attempt " + attempt + " -> " + backoff);
+        }
+    }
+
+    private MailOutboxDispatcher dispatcher(JavaMailSenderImpl sender) {
+        PooledMailTransport transport = new PooledMailTransport(sender, 2, 30_000, 5_000, registry);
+        return new MailOutboxDispatcher(repository, new MailService(transport), new SyncTaskExecutor(), properties, registry);
+    }
+
+    private static JavaMailSenderImpl smtpSender(int port) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(port);
+        sender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "1000");
+        return sender;
+    }
+
+    private static MailOutbox outbox(String to, int attempts) {
+        MailOutbox mail = MailOutbox.pending(to, "Verify your TrueRally account",
+                "<a href='http://localhost:8081/auth/verify?token=abc'>verify</a>");
+        mail.setId(UUID.randomUUID());
+        mail.setAttempts(attempts);
+        return mail;
+    }
+}
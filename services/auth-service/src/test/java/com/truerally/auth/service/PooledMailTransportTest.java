@@ -0,0 +1,119 @@
+package com.truerally.auth.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledMailTransportTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SimpleMeterRegistry registry;
+    private PooledMailTransport transport;
+    private MailService mailService;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        registry = new SimpleMeterRegistry();
+        transport = new PooledMailTransport(sender, 2, 30_000, 5_000, registry);
+        mailService = new MailService(transport);
+    }
+
+    @Test
+    void reusesOneSessionForSequentialSends() {
+        for (int i = 0; i < 10; i++) {
+            mailService.sendMail("player" + i + "@truerally.dev", "Hello", "<p>hi</p>");
+        }
+
+        assertTrue(smtp.waitForIncomingEmail(5_000, 10));
+        assertEquals(1.0, connects());
+        assertEquals(10L, registry.get("auth.mail.smtp.send").timer().count());
+    }
+
+    @Test
+    void batchGoesOverASingleSession() {
+        List<MimeMessage> batch = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            batch.add(mailService.compose("batch" + i + "@truerally.dev", "Batch", "<p>" + i + "</p>"));
+        }
+
+        List<MailSendException> results = mailService.sendBatch(batch);
+
+        assertTrue(results.stream().allMatch(r -> r == null));
+        assertTrue(smtp.waitForIncomingEmail(5_000, 25));
+        assertEquals(1.0, connects());
+    }
+
+    @Test
+    void neverOpensMoreSessionsThanPoolSize() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int n = i;
+                sends.add(pool.submit(() -> mailService.sendMail("c" + n + "@truerally.dev", "Burst", "<p>x</p>")));
+            }
+            for (Future<?> send : sends) {
+                send.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(smtp.waitForIncomingEmail(5_000, 40));
+        assertTrue(connects() <= 2.0, "connects=" + connects());
+    }
+
+    @Test
+    void reconnectsWhenServerDropsPooledSession() {
+        mailService.sendMail("before@truerally.dev", "One", "<p>1</p>");
+        smtp.reset(); // restarts the server, killing the pooled session
+
+        mailService.sendMail("after@truerally.dev", "Two", "<p>2</p>");
+
+        assertTrue(smtp.waitForIncomingEmail(5_000, 1));
+        assertEquals(2.0, connects());
+        assertEquals(1.0, registry.get("auth.mail.smtp.broken").counter().count());
+    }
+
+    @Test
+    void onlyServerRefusalsCountAsRejections() throws Exception {
+        Address user = new InternetAddress("gone@truerally.dev");
+        SendFailedException dropped = new SendFailedException("[EOF]");
+        SendFailedException unknownUser = new SendFailedException("Invalid Addresses",
+                new SendFailedException("550 5.1.1 <gone@truerally.dev>: user unknown"));
+        SendFailedException invalid = new SendFailedException("Invalid Addresses", null,
+                new Address[0], new Address[0], new Address[]{user});
+        SendFailedException tempFailure = new SendFailedException("421 4.4.2 connection timed out");
+
+        assertFalse(PooledMailTransport.isRejection(dropped));
+        assertFalse(PooledMailTransport.isRejection(tempFailure));
+        assertTrue(PooledMailTransport.isRejection(unknownUser));
+        assertTrue(PooledMailTransport.isRejection(invalid));
+    }
+
+    private double connects() {
+        return registry.get("auth.mail.smtp.connects").counter().count();
+    }
+}
@@ -0,0 +1,120 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.dto.RegisterRequest;
+import com.truerally.auth.exception.UserAlreadyExistsException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holds the register write path to its statement budget: one insert each for
+ * the user, the verification token, the mail outbox row and the event outbox
+ * row, all in a single transaction. The index-only email probe only runs when the registered-email
+ * filter cannot rule the address out.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.truerally.auth.service.RegisterStatementCountTest$SqlRecorder",
+        "spring.jpa.show-sql=false",
+        "security.password.bcrypt-strength=4",
+        "spring.mail.host=localhost",
+        "spring.mail.port=1",
+        "mail.outbox.poll-interval-ms=600000",
+        "warmup.enabled=false",
+        "spring.kafka.admin.auto-create=false",
+        "auth-events.relay.enabled=false",
+        "auth-events.consumer.enabled=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class RegisterStatementCountTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true&prepareThreshold=1");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private RegisteredEmailFilter registeredEmails;
+
+    @BeforeEach
+    void reset() throws InterruptedException {
+        for (int i = 0; i < 100 && !registeredEmails.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(registeredEmails.isReady(), "email filter did not load");
+        SqlRecorder.STATEMENTS.get().clear();
+    }
+
+    @Test
+    void newEmailSkipsTheProbeAndInsertsOncePerRow() {
+        authService.register(request("first@truerally.dev"));
+
+        List<String> sql = SqlRecorder.STATEMENTS.get();
+        assertEquals(4, sql.size(), () -> "statements: " + sql);
+        assertEquals(0, count(sql, "select"), () -> "statements: " + sql);
+        assertEquals(1, count(sql, "insert into auth.users"));
+        assertEquals(1, count(sql, "insert into auth.user_tokens"));
+        assertEquals(1, count(sql, "insert into auth.mail_outbox"));
+        assertEquals(1, count(sql, "insert into auth.event_outbox"));
+    }
+
+    @Test
+    void duplicateEmailStopsAfterTheProbe() {
+        authService.register(request("taken@truerally.dev"));
+        SqlRecorder.STATEMENTS.get().clear();
+
+        assertThrows(UserAlreadyExistsException.class, () -> authService.register(request("taken@truerally.dev")));
+
+        List<String> sql = SqlRecorder.STATEMENTS.get();
+        assertEquals(1, sql.size(), () -> "statements: " + sql);
+        assertFalse(sql.get(0).contains("password_hash"), "email probe must not load the user row");
+    }
+
+    private static long count(List<String> sql, String prefix) {
+        return sql.stream().filter(s -> s.toLowerCase(Locale.ROOT).startsWith(prefix)).count();
+    }
+
+    private static RegisterRequest request(String email) {
+        return new RegisterRequest(email, "Secret123!", "Statement Counter", LocalDate.of(1995, 5, 17),
+                "Pune", "IN", "411001", "F");
+    }
+
+    /**
+     * Records SQL prepared on the calling thread only, so the scheduled outbox
+     * and partition jobs don't skew the count. Hibernate prepares a JDBC batch
+     * once, so each entry is one statement sent to the server.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.dto.RegisterRequest;
+import com.truerally.auth.exception.UserAlreadyExistsException;
+import com.truerally.auth.model.User;
+import com.truerally.auth.repository.MailOutboxRepository;
+import com.truerally.auth.repository.UserRepository;
+import com.truerally.auth.repository.UserTokenRepository;
+import com.truerally.auth.security.JwtKeyRing;
+import com.truerally.auth.util.EmailTemplateBuilder;
+import com.truerally.auth.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/** Register hashes the password before it opens the write transaction, never inside it. */
+class RegisterTransactionTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final RegisteredEmailFilter registeredEmails = mock(RegisteredEmailFilter.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final AuthServiceImpl authService = new AuthServiceImpl(
+            userRepository,
+            mock(UserTokenRepository.class),
+            mock(MailOutboxRepository.class),
+            mock(EmailTemplateBuilder.class),
+            passwordEncoder,
+            new TokenService(),
+            registeredEmails,
+            mock(UserClaimsCache.class),
+            new JwtUtil(JwtKeyRing.ephemeral(), 300_000, "truerally-auth"),
+            mock(ApplicationEventPublisher.class),
+            mock(AuthEventPublisher.class),
+            transactionTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hashesBeforeTheTransactionAndWritesInsideIt() {
+        when(passwordEncoder.encode(any())).thenReturn("{bcrypt}hash");
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        authService.register(request("new@truerally.dev"));
+
+        InOrder order = inOrder(passwordEncoder, transactionTemplate, userRepository);
+        order.verify(passwordEncoder).encode("Secret123!");
+        order.verify(transactionTemplate).executeWithoutResult(any());
+        order.verify(userRepository).save(any(User.class));
+        order.verify(userRepository).flush();
+    }
+
+    @Test
+    void knownDuplicateIsRejectedWithoutHashing() {
+        when(registeredEmails.definitelyAbsent("taken@truerally.dev")).thenReturn(false);
+        when(userRepository.existsByEmail("taken@truerally.dev")).thenReturn(true);
+
+        assertThrows(UserAlreadyExistsException.class, () -> authService.register(request("taken@truerally.dev")));
+
+        verifyNoInteractions(passwordEncoder, transactionTemplate);
+    }
+
+    private static RegisterRequest request(String email) {
+        return new RegisterRequest(email, "Secret123!", "Register Test", LocalDate.of(1995, 5, 17),
+                "Pune", "IN", "411001", "F");
+    }
+}
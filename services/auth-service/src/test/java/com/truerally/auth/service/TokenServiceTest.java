@@ -0,0 +1,41 @@
+package com.truerally.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private final TokenService tokenService = new TokenService();
+
+    @Test
+    void newTokensCarry256BitsInUrlSafeForm() {
+        String token = tokenService.newToken();
+
+        assertEquals(43, token.length());
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertNotEquals(token, tokenService.newToken());
+    }
+
+    @Test
+    void hashMatchesTheDigestWrittenByTheMigration() {
+        // SELECT sha256(convert_to('3f2b8c1e-7a4d-4e9b-9c61-0d5f2a8e7b34', 'UTF8'))
+        byte[] hash = tokenService.hash("3f2b8c1e-7a4d-4e9b-9c61-0d5f2a8e7b34");
+
+        assertEquals(32, hash.length);
+        assertArrayEquals(HexFormat.of().parseHex(
+                "a4d04fd4cfe965cba5dd9ccf88e24925de45f77c89e08a4336cf244ffd92d81b"), hash);
+    }
+
+    @Test
+    void logIdIsAShortDigestPrefixNeverTheToken() {
+        String token = tokenService.newToken();
+        String logId = TokenService.logId(tokenService.hash(token));
+
+        assertEquals(8, logId.length());
+        assertFalse(token.contains(logId));
+        assertEquals("a4d04fd4", TokenService.logId(tokenService.hash("3f2b8c1e-7a4d-4e9b-9c61-0d5f2a8e7b34")));
+    }
+}
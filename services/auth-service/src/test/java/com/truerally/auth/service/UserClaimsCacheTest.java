@@ -0,0 +1,95 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.exception.InvalidTokenException;
+import com.truerally.auth.repository.UserClaims;
+import com.truerally.auth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserClaimsCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private UserRepository repository;
+    private SimpleMeterRegistry registry;
+    private UserClaimsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserRepository.class);
+        registry = new SimpleMeterRegistry();
+        cache = new UserClaimsCache(repository, 100, 60_000, registry);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsTheProjectionOnceAndServesRepeatsFromMemory() {
+        when(repository.findClaimsById(userId))
+                .thenReturn(Optional.of(new UserClaims("ana@truerally.dev", "Ana", true)));
+
+        assertEquals("ana@truerally.dev", cache.get(userId).email());
+        assertEquals("ana@truerally.dev", cache.get(userId).email());
+
+        verify(repository, times(1)).findClaimsById(userId);
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "user_claims").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void seededClaimsNeedNoLookup() {
+        cache.put(userId, new UserClaims("ana@truerally.dev", "Ana", true));
+
+        assertEquals("Ana", cache.get(userId).fullName());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void missingUserIsAnInvalidTokenAndIsNotCached() {
+        when(repository.findClaimsById(userId)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidTokenException.class, () -> cache.get(userId));
+        assertThrows(InvalidTokenException.class, () -> cache.get(userId));
+        verify(repository, times(2)).findClaimsById(userId);
+    }
+
+    @Test
+    void evictionInsideATransactionWaitsForCompletion() {
+        cache.put(userId, new UserClaims("ana@truerally.dev", "Ana", false));
+        when(repository.findClaimsById(userId))
+                .thenReturn(Optional.of(new UserClaims("ana@truerally.dev", "Ana", true)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit(userId);
+        assertFalse(cache.get(userId).verified(), "evicted before commit");
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertTrue(cache.get(userId).verified());
+    }
+
+    @Test
+    void evictionWithoutATransactionIsImmediate() {
+        cache.put(userId, new UserClaims("ana@truerally.dev", "Ana", false));
+        when(repository.findClaimsById(userId))
+                .thenReturn(Optional.of(new UserClaims("ana@truerally.dev", "Ana", true)));
+
+        cache.evictAfterCommit(userId);
+
+        assertTrue(cache.get(userId).verified());
+    }
+}
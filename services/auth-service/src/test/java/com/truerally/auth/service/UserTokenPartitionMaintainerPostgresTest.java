@@ -0,0 +1,132 @@
+package com.truerally.auth.service;
+
+import com.truerally.auth.config.UserTokenPartitionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the maintainer against real partitions, for the cases {@code plan()} alone
+ * can't show: a day whose rows already sit in the default partition, and one
+ * step failing without rolling back the rest of the run.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserTokenPartitionMaintainerPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry registry;
+    private UserTokenPartitionMaintainer maintainer;
+    private UUID userId;
+
+    @BeforeEach
+    void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway flyway = Flyway.configure().dataSource(dataSource).schemas("auth").cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        jdbc = new JdbcTemplate(dataSource);
+        UserTokenPartitionProperties properties = new UserTokenPartitionProperties();
+        properties.setLockTimeoutMs(200);
+        registry = new SimpleMeterRegistry();
+        maintainer = new UserTokenPartitionMaintainer(jdbc,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), properties, registry);
+
+        userId = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO auth.users (id, email, password_hash, full_name, date_of_birth, city, country,
+                                        pincode, gender, created_at)
+                VALUES (?, 'partitions@truerally.dev', 'x', 'Partition Test', '1995-05-17', 'Pune', 'IN',
+                        '411001', 'F', now())
+                """, userId);
+    }
+
+    @Test
+    void movesDefaultPartitionRowsIntoTheDayBeingCreated() {
+        // The job was down past its horizon: this token landed in the default partition
+        LocalDate today = LocalDate.now().plusDays(30);
+        UUID token = insertToken(today.plusDays(1).atStartOfDay().minusHours(1).toString());
+        assertEquals("user_tokens_default", partitionOf(token));
+
+        maintainer.maintain(today);
+
+        assertEquals(0.0, failures());
+        assertEquals(UserTokenPartitionMaintainer.partitionName(today), partitionOf(token));
+        assertFalse(partitionExists(LocalDate.now()), "expired days are dropped in the same run");
+    }
+
+    @Test
+    void oneFailedStepDoesNotRollBackTheOthers() throws Exception {
+        LocalDate today = LocalDate.now().plusDays(30);
+        LocalDate busy = LocalDate.now();
+
+        // A reader holding a lock on one expired day makes its drop time out
+        try (Connection reader = dataSource.getConnection(); Statement statement = reader.createStatement()) {
+            reader.setAutoCommit(false);
+            statement.execute("LOCK TABLE auth." + UserTokenPartitionMaintainer.partitionName(busy)
+                    + " IN ACCESS SHARE MODE");
+
+            maintainer.maintain(today);
+
+            reader.rollback();
+        }
+
+        assertEquals(1.0, failures());
+        assertTrue(partitionExists(busy));
+        assertFalse(partitionExists(busy.plusDays(1)), "the other drops still commit");
+        assertTrue(partitionExists(today), "and so do the creates");
+
+        maintainer.maintain(today);
+        assertFalse(partitionExists(busy), "the next run catches up");
+    }
+
+    private UUID insertToken(String expiresAt) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO auth.user_tokens (id, token_hash, type, expires_at, created_at, user_id)
+                VALUES (?, sha256(?::bytea), 0, ?::timestamp, now(), ?)
+                """, id, id.toString(), expiresAt, userId);
+        return id;
+    }
+
+    private String partitionOf(UUID token) {
+        return jdbc.queryForObject("SELECT tableoid::regclass::text FROM auth.user_tokens WHERE id = ?",
+                String.class, token).replace("auth.", "");
+    }
+
+    private boolean partitionExists(LocalDate day) {
+        return dailyPartitions().contains(UserTokenPartitionMaintainer.partitionName(day));
+    }
+
+    private List<String> dailyPartitions() {
+        return jdbc.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'auth.user_tokens'::regclass AND c.relname LIKE 'user_tokens_p%'
+                ORDER BY c.relname
+                """, String.class);
+    }
+
+    private double failures() {
+        return registry.get("auth.user_tokens.partitions.failures").counter().count();
+    }
+}
@@ -0,0 +1,38 @@
+package com.truerally.auth.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTokenPartitionMaintainerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 9, 30);
+
+    @Test
+    void createsMissingDaysThroughTheHorizon() {
+        UserTokenPartitionMaintainer.Plan plan = UserTokenPartitionMaintainer.plan(
+                List.of(TODAY, TODAY.plusDays(1)), TODAY, 3);
+
+        assertEquals(List.of(TODAY.plusDays(2), TODAY.plusDays(3)), plan.create());
+        assertTrue(plan.drop().isEmpty());
+    }
+
+    @Test
+    void dropsOnlyDaysThatHaveFullyExpired() {
+        UserTokenPartitionMaintainer.Plan plan = UserTokenPartitionMaintainer.plan(
+                List.of(TODAY.minusDays(2), TODAY.minusDays(1), TODAY, TODAY.plusDays(1)), TODAY, 1);
+
+        assertEquals(List.of(TODAY.minusDays(2), TODAY.minusDays(1)), plan.drop());
+        assertTrue(plan.create().isEmpty());
+    }
+
+    @Test
+    void partitionNamesRoundTripAndIgnoreTheDefaultPartition() {
+        assertEquals("user_tokens_p20241001", UserTokenPartitionMaintainer.partitionName(TODAY.plusDays(1)));
+        assertEquals(TODAY.plusDays(1), UserTokenPartitionMaintainer.dayOf("user_tokens_p20241001"));
+        assertNull(UserTokenPartitionMaintainer.dayOf("user_tokens_default"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.truerally.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.truerally.auth.config.WarmupProperties;
+import com.truerally.auth.security.JwtKeyRing;
+import com.truerally.auth.util.JwtUtil;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupRunnerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final WarmupProperties properties = new WarmupProperties();
+
+    private WarmupRunner runner() {
+        JwtUtil jwtUtil = new JwtUtil(JwtKeyRing.ephemeral(), 300_000, "truerally-auth");
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new WarmupRunner(jwtUtil, new BCryptPasswordEncoder(4), new TokenService(), objectMapper, properties, registry);
+    }
+
+    @Test
+    void stopsWithinBudgetAndRecordsDuration() {
+        properties.setMinDurationMs(0);
+        properties.setMaxDurationMs(1_500);
+
+        long start = System.nanoTime();
+        runner().run(new DefaultApplicationArguments());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        Timer timer = registry.find("auth.warmup.duration").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertNotEquals("failed", timer.getId().getTag("outcome"));
+        assertTrue(elapsedMs < 5_000, "warm-up overran its budget: " + elapsedMs + "ms");
+    }
+
+    @Test
+    void disabledWarmupDoesNothing() {
+        properties.setEnabled(false);
+
+        runner().run(new DefaultApplicationArguments());
+
+        assertNull(registry.find("auth.warmup.duration").timer());
+    }
+}
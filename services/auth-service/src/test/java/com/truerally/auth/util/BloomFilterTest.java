@@ -0,0 +1,55 @@
+package com.truerally.auth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnInsertedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("player" + i + "@truerally.dev");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("player" + i + "@truerally.dev"));
+        }
+    }
+
+    @Test
+    void observedFalsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put("member" + i + "@truerally.dev");
+        }
+
+        int hits = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("stranger" + i + "@truerally.dev")) {
+                hits++;
+            }
+        }
+        double observed = (double) hits / probes;
+        assertTrue(observed < 0.015, "observed false-positive rate " + observed);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.004);
+    }
+
+    @Test
+    void sizesFromExpectedInsertions() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+        // ~9.6 bits per element and 7 probes at 1%
+        assertEquals(7, filter.hashFunctions());
+        assertTrue(filter.memoryBytes() > 1_150_000 && filter.memoryBytes() < 1_250_000,
+                "memory " + filter.memoryBytes());
+        assertFalse(filter.mightContain("nobody@truerally.dev"));
+    }
+
+    @Test
+    void rejectsNonsensicalSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
@@ -0,0 +1,16 @@
+package com.truerally.player.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "player.ingest")
+public class IngestProperties {
+
+    /** Rows per COPY; one batch is written while at most one more is being parsed. */
+    private int batchSize = 10_000;
+    /** Longest accepted line in bytes; a longer one aborts the upload. */
+    private int maxLineBytes = 4096;
+    /** Per-line errors listed in the report; the counts always cover every line. */
+    private int maxReportedErrors = 1000;
+}
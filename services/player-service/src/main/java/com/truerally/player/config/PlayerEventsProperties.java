@@ -0,0 +1,13 @@
+package com.truerally.player.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "player.events.consumer")
+public class PlayerEventsProperties {
+
+    private boolean enabled = true;
+    /** Upper bound on writing one polled batch; past it the batch is redelivered. */
+    private long writeTimeoutMs = 30_000;
+}
@@ -0,0 +1,31 @@
+package com.truerally.player.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "player.rating")
+public class RatingProperties {
+
+    /** Glicko-2 system constant; lower keeps volatility, and so ratings, steadier. */
+    private double tau = 0.5;
+    /** Floor on rating deviation so regulars still react to results. */
+    private double minDeviation = 30;
+    /** Initial capacity of the per-player arrays; they grow past it. */
+    private int expectedPlayers = 100_000;
+    private Feed feed = new Feed();
+    private Snapshot snapshot = new Snapshot();
+
+    @Data
+    public static class Feed {
+        private long pollIntervalMs = 200;
+        private int batchSize = 5_000;
+        private long timeoutMs = 30_000;
+    }
+
+    @Data
+    public static class Snapshot {
+        private String path = "data/ratings.snapshot";
+        private long intervalMs = 60_000;
+    }
+}
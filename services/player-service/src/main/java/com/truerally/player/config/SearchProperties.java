@@ -0,0 +1,16 @@
+package com.truerally.player.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "player.search")
+public class SearchProperties {
+
+    /** Initial capacity of the index arrays; they grow past it. */
+    private int expectedPlayers = 100_000;
+    /** Matches ranked per query; broader queries are ranked over the earliest players only. */
+    private int maxCandidates = 10_000;
+    /** Profiles indexed per write-lock hold while rebuilding at startup. */
+    private int loadBatchSize = 10_000;
+}
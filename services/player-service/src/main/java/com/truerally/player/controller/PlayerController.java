@@ -0,0 +1,41 @@
+package com.truerally.player.controller;
+
+import com.truerally.player.dto.PlayerProfileResponse;
+import com.truerally.player.dto.PlayerSearchHit;
+import com.truerally.player.repository.PlayerProfileRepository;
+import com.truerally.player.service.PlayerSearchIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/players")
+public class PlayerController {
+
+    private final PlayerProfileRepository profiles;
+    private final PlayerSearchIndex searchIndex;
+
+    public PlayerController(PlayerProfileRepository profiles, PlayerSearchIndex searchIndex) {
+        this.profiles = profiles;
+        this.searchIndex = searchIndex;
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<PlayerProfileResponse>> getProfile(@PathVariable UUID userId) {
+        return profiles.findById(userId)
+                .map(profile -> ResponseEntity.ok(PlayerProfileResponse.of(profile)))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/search")
+    public List<PlayerSearchHit> search(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        return searchIndex.search(q, limit);
+    }
+}
@@ -0,0 +1,77 @@
+package com.truerally.player.controller;
+
+import com.truerally.player.dto.IngestReport;
+import com.truerally.player.dto.LeaderboardEntry;
+import com.truerally.player.dto.MatchRecordedResponse;
+import com.truerally.player.dto.MatchResultRequest;
+import com.truerally.player.dto.PlayerRatingResponse;
+import com.truerally.player.service.MatchIngestService;
+import com.truerally.player.service.MatchLineParser;
+import com.truerally.player.service.RatingService;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+public class RatingController {
+
+    private final RatingService ratingService;
+    private final MatchIngestService ingestService;
+
+    public RatingController(RatingService ratingService, MatchIngestService ingestService) {
+        this.ratingService = ratingService;
+        this.ingestService = ingestService;
+    }
+
+    @PostMapping("/matches")
+    public Mono<ResponseEntity<MatchRecordedResponse>> recordMatch(@RequestBody MatchResultRequest request) {
+        return ratingService.record(request)
+                .map(seq -> ResponseEntity.status(HttpStatus.ACCEPTED).body(new MatchRecordedResponse(seq)));
+    }
+
+    /**
+     * Bulk upload of results as NDJSON or CSV, read as a stream. Responds once the
+     * whole body is processed: 200 with the per-line report, or 422 if it stopped
+     * early (see {@link IngestReport#aborted()}).
+     */
+    @PostMapping(path = "/matches/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<IngestReport>> ingestNdjson(@RequestBody Flux<DataBuffer> body) {
+        return ingestService.ingest(body, MatchLineParser.Format.NDJSON).map(RatingController::toResponse);
+    }
+
+    @PostMapping(path = "/matches/bulk", consumes = "text/csv")
+    public Mono<ResponseEntity<IngestReport>> ingestCsv(@RequestBody Flux<DataBuffer> body) {
+        return ingestService.ingest(body, MatchLineParser.Format.CSV).map(RatingController::toResponse);
+    }
+
+    @GetMapping("/players/{userId}/rating")
+    public ResponseEntity<PlayerRatingResponse> getRating(@PathVariable UUID userId) {
+        return ResponseEntity.of(ratingService.ratingOf(userId));
+    }
+
+    @GetMapping("/leaderboard")
+    public Mono<List<LeaderboardEntry>> getLeaderboard(@RequestParam(required = false) String country,
+                                                      @RequestParam(required = false) String city,
+                                                      @RequestParam(defaultValue = "0") int offset,
+                                                      @RequestParam(defaultValue = "50") int limit) {
+        return ratingService.leaderboard(country, city, offset, limit);
+    }
+
+    private static ResponseEntity<IngestReport> toResponse(IngestReport report) {
+        return report.aborted() == null
+                ? ResponseEntity.ok(report)
+                : ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(report);
+    }
+}
@@ -0,0 +1,20 @@
+package com.truerally.player.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk upload. Batches commit in order, so every accepted line up to
+ * {@code committedThroughLine} is stored even when the upload was cut short;
+ * {@code aborted} then says why, and the client can resume after that line.
+ */
+public record IngestReport(long lines,
+                           long accepted,
+                           long rejected,
+                           long committedThroughLine,
+                           List<LineError> errors,
+                           boolean errorsTruncated,
+                           String aborted) {
+
+    public record LineError(long line, String error) {
+    }
+}
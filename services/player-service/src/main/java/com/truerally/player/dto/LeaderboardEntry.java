@@ -0,0 +1,13 @@
+package com.truerally.player.dto;
+
+import com.truerally.player.service.RatingEngine;
+
+import java.util.UUID;
+
+public record LeaderboardEntry(int rank, UUID userId, String fullName, long rating, long deviation, int games) {
+
+    public static LeaderboardEntry of(RatingEngine.RankedPlayer player, String fullName) {
+        return new LeaderboardEntry(player.rank(), player.userId(), fullName,
+                Math.round(player.rating()), Math.round(player.deviation()), player.games());
+    }
+}
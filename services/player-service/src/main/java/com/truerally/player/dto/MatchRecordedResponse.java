@@ -0,0 +1,5 @@
+package com.truerally.player.dto;
+
+/** Position of the stored result; ratings reflect it once the engine reaches this sequence. */
+public record MatchRecordedResponse(long seq) {
+}
@@ -0,0 +1,7 @@
+package com.truerally.player.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record MatchResultRequest(UUID winnerId, UUID loserId, Instant playedAt) {
+}
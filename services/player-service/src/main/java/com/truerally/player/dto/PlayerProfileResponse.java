@@ -0,0 +1,21 @@
+package com.truerally.player.dto;
+
+import com.truerally.player.repository.PlayerProfile;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Public view of a player; contact and date-of-birth details stay private. */
+public record PlayerProfileResponse(UUID userId,
+                                    String fullName,
+                                    String gender,
+                                    String city,
+                                    String country,
+                                    boolean verified,
+                                    Instant memberSince) {
+
+    public static PlayerProfileResponse of(PlayerProfile profile) {
+        return new PlayerProfileResponse(profile.userId(), profile.fullName(), profile.gender(),
+                profile.city(), profile.country(), profile.verified(), profile.registeredAt());
+    }
+}
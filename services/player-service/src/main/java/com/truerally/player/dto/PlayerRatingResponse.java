@@ -0,0 +1,20 @@
+package com.truerally.player.dto;
+
+import com.truerally.player.service.RatingEngine;
+
+import java.util.UUID;
+
+/** Ratings rounded for display; ranks are 1-based and null where the location is unknown. */
+public record PlayerRatingResponse(UUID userId,
+                                   long rating,
+                                   long deviation,
+                                   int games,
+                                   int rank,
+                                   Integer countryRank,
+                                   Integer cityRank) {
+
+    public static PlayerRatingResponse of(RatingEngine.PlayerRating rating) {
+        return new PlayerRatingResponse(rating.userId(), Math.round(rating.rating()), Math.round(rating.deviation()),
+                rating.games(), rating.rank(), rating.countryRank(), rating.cityRank());
+    }
+}
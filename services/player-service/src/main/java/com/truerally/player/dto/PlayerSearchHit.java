@@ -0,0 +1,13 @@
+package com.truerally.player.dto;
+
+import com.truerally.player.util.PrefixIndex;
+
+import java.util.UUID;
+
+/** One autocomplete suggestion; the pincode is searchable but not echoed back. */
+public record PlayerSearchHit(UUID userId, String fullName, String city, String country) {
+
+    public static PlayerSearchHit of(PrefixIndex.Hit hit) {
+        return new PlayerSearchHit(hit.userId(), hit.fullName(), hit.city(), hit.country());
+    }
+}
@@ -0,0 +1,138 @@
+package com.truerally.player.repository;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class MatchRepository {
+
+    private static final long ADVISORY_LOCK_KEY = 0x706c795f6d6174L; // "ply_mat"
+
+    private static final String INSERT = """
+            INSERT INTO player.matches (winner_id, loser_id, played_at)
+            VALUES ($1, $2, $3)
+            RETURNING seq
+            """;
+
+    private static final String COPY = "COPY player.matches (winner_id, loser_id, played_at) FROM STDIN";
+
+    private static final String FIND_AFTER = """
+            SELECT seq, winner_id, loser_id, played_at
+            FROM player.matches
+            WHERE seq > $1
+            ORDER BY seq
+            LIMIT $2
+            """;
+
+    private final DatabaseClient db;
+    private final TransactionalOperator transactionalOperator;
+
+    public MatchRepository(DatabaseClient db, TransactionalOperator transactionalOperator) {
+        this.db = db;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Stores results in one transaction as a single pipelined batch. The advisory
+     * lock serialises writers so sequence numbers commit in order.
+     *
+     * @return the assigned sequence numbers, in input order
+     */
+    public Mono<List<Long>> insert(List<MatchResult> matches) {
+        if (matches.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        Mono<List<Long>> write = db.sql("SELECT pg_advisory_xact_lock($1)")
+                .bind(0, ADVISORY_LOCK_KEY)
+                .then()
+                .then(db.inConnection(connection -> {
+                    Statement statement = connection.createStatement(INSERT);
+                    for (int i = 0; i < matches.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        MatchResult match = matches.get(i);
+                        statement.bind(0, match.winnerId());
+                        statement.bind(1, match.loserId());
+                        statement.bind(2, match.playedAt().atOffset(ZoneOffset.UTC));
+                    }
+                    return Flux.from(statement.execute())
+                            .concatMap(result -> result.map(row -> row.get("seq", Long.class)))
+                            .collectList();
+                }));
+        return transactionalOperator.transactional(write);
+    }
+
+    /**
+     * Bulk variant of {@link #insert}: one {@code COPY} in one transaction, under the
+     * same advisory lock. Much cheaper per row than inserts, but returns only the
+     * row count.
+     */
+    public Mono<Long> copy(List<MatchResult> matches) {
+        if (matches.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Mono<Long> write = db.sql("SELECT pg_advisory_xact_lock($1)")
+                .bind(0, ADVISORY_LOCK_KEY)
+                .then()
+                .then(db.inConnection(connection ->
+                        unwrap(connection).copyIn(COPY, Mono.fromSupplier(() -> encode(matches)))));
+        return transactionalOperator.transactional(write);
+    }
+
+    /** The next results to apply, in sequence order. */
+    public Flux<MatchResult> findAfter(long seq, int limit) {
+        return db.sql(FIND_AFTER)
+                .bind(0, seq)
+                .bind(1, limit)
+                .map(MatchRepository::toMatch)
+                .all();
+    }
+
+    /** COPY text format; UUIDs and ISO instants never need escaping. */
+    private static ByteBuf encode(List<MatchResult> matches) {
+        StringBuilder text = new StringBuilder(matches.size() * 100);
+        for (MatchResult match : matches) {
+            text.append(match.winnerId()).append('\t')
+                    .append(match.loserId()).append('\t')
+                    .append(match.playedAt()).append('\n');
+        }
+        return Unpooled.wrappedBuffer(text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Digs the driver connection out of the transaction proxy and the pool wrapper. */
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgres) {
+            return postgres;
+        }
+        throw new IllegalStateException("COPY needs a Postgres connection, got " + connection.getClass().getName());
+    }
+
+    private static MatchResult toMatch(Readable row) {
+        return new MatchResult(
+                row.get("seq", Long.class),
+                row.get("winner_id", UUID.class),
+                row.get("loser_id", UUID.class),
+                row.get("played_at", OffsetDateTime.class).toInstant());
+    }
+}
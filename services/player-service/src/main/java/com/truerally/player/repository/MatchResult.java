@@ -0,0 +1,12 @@
+package com.truerally.player.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** One row of {@code player.matches}; {@code seq} is 0 until it has been stored. */
+public record MatchResult(long seq, UUID winnerId, UUID loserId, Instant playedAt) {
+
+    public static MatchResult of(UUID winnerId, UUID loserId, Instant playedAt) {
+        return new MatchResult(0, winnerId, loserId, playedAt);
+    }
+}
@@ -0,0 +1,6 @@
+package com.truerally.player.repository;
+
+import java.util.UUID;
+
+public record PlayerLocation(UUID userId, String country, String city) {
+}
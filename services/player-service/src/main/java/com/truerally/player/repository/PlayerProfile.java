@@ -0,0 +1,17 @@
+package com.truerally.player.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/** One row of {@code player.profiles}. */
+public record PlayerProfile(UUID userId,
+                            String fullName,
+                            String gender,
+                            LocalDate dateOfBirth,
+                            String city,
+                            String country,
+                            String pincode,
+                            boolean verified,
+                            Instant registeredAt) {
+}
@@ -0,0 +1,213 @@
+package com.truerally.player.repository;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Non-blocking access to {@code player.profiles}. Writes are idempotent and
+ * order-safe: a row only changes when the incoming event is newer than the last
+ * one applied, so replays and redeliveries are harmless.
+ */
+@Repository
+public class PlayerProfileRepository {
+
+    private static final String FIND_BY_ID = """
+            SELECT user_id, full_name, gender, date_of_birth, city, country, pincode, verified, registered_at
+            FROM player.profiles
+            WHERE user_id = $1
+            """;
+
+    private static final String UPSERT_REGISTERED = """
+            INSERT INTO player.profiles AS p
+                (user_id, full_name, gender, date_of_birth, city, country, pincode,
+                 verified, registered_at, updated_at, last_event_id)
+            VALUES ($1, $2, $3, $4, $5, $6, $7, false, $8, now(), $9)
+            ON CONFLICT (user_id) DO UPDATE SET
+                full_name = EXCLUDED.full_name,
+                gender = EXCLUDED.gender,
+                date_of_birth = EXCLUDED.date_of_birth,
+                city = EXCLUDED.city,
+                country = EXCLUDED.country,
+                pincode = EXCLUDED.pincode,
+                updated_at = now(),
+                last_event_id = EXCLUDED.last_event_id
+            WHERE p.last_event_id < EXCLUDED.last_event_id
+            """;
+
+    private static final String MARK_VERIFIED = """
+            UPDATE player.profiles
+            SET verified = true, updated_at = now(), last_event_id = $2
+            WHERE user_id = $1 AND last_event_id < $2
+            """;
+
+    private static final String FIND_LOCATIONS = """
+            SELECT user_id, country, city
+            FROM player.profiles
+            """;
+
+    private static final String FIND_SEARCH_DOCUMENTS = """
+            SELECT user_id, full_name, city, country, pincode
+            FROM player.profiles
+            """;
+
+    private static final String FIND_NAMES = """
+            SELECT user_id, full_name
+            FROM player.profiles
+            WHERE user_id = ANY($1)
+            """;
+
+    private static final int SCAN_FETCH_SIZE = 10_000;
+
+    private final DatabaseClient db;
+
+    public PlayerProfileRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    public Mono<PlayerProfile> findById(UUID userId) {
+        return db.sql(FIND_BY_ID)
+                .bind(0, userId)
+                .map(PlayerProfileRepository::toProfile)
+                .one();
+    }
+
+    /** Streams every player's location with a server-side cursor, for the rating engine. */
+    public Flux<PlayerLocation> findLocations() {
+        return db.sql(FIND_LOCATIONS)
+                .filter(statement -> statement.fetchSize(SCAN_FETCH_SIZE))
+                .map(row -> new PlayerLocation(
+                        row.get("user_id", UUID.class),
+                        row.get("country", String.class),
+                        row.get("city", String.class)))
+                .all();
+    }
+
+    /** Streams every player's searchable text with a server-side cursor, for the search index. */
+    public Flux<SearchDocument> findSearchDocuments() {
+        return db.sql(FIND_SEARCH_DOCUMENTS)
+                .filter(statement -> statement.fetchSize(SCAN_FETCH_SIZE))
+                .map(row -> new SearchDocument(
+                        row.get("user_id", UUID.class),
+                        row.get("full_name", String.class),
+                        row.get("city", String.class),
+                        row.get("country", String.class),
+                        row.get("pincode", String.class)))
+                .all();
+    }
+
+    /** Display names for one page of a leaderboard; unknown ids are left out. */
+    public Mono<Map<UUID, String>> findNames(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return db.sql(FIND_NAMES)
+                .bind(0, userIds.toArray(UUID[]::new))
+                .map(row -> Map.entry(row.get("user_id", UUID.class), row.get("full_name", String.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Applies a batch of changes on one connection. Each statement kind is sent as a
+     * single pipelined batch, registrations first, so a verification in the same
+     * batch always finds its row.
+     *
+     * @return number of rows changed
+     */
+    public Mono<Long> apply(List<ProfileChange> changes) {
+        List<ProfileChange.Registered> registered = changes.stream()
+                .filter(ProfileChange.Registered.class::isInstance)
+                .map(ProfileChange.Registered.class::cast)
+                .toList();
+        List<ProfileChange.Verified> verified = changes.stream()
+                .filter(ProfileChange.Verified.class::isInstance)
+                .map(ProfileChange.Verified.class::cast)
+                .toList();
+        if (registered.isEmpty() && verified.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return db.inConnection(connection -> upsertRegistered(connection, registered)
+                .concatWith(markVerified(connection, verified))
+                .reduce(0L, Long::sum));
+    }
+
+    private static Flux<Long> upsertRegistered(Connection connection, List<ProfileChange.Registered> batch) {
+        if (batch.isEmpty()) {
+            return Flux.empty();
+        }
+        Statement statement = connection.createStatement(UPSERT_REGISTERED);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            ProfileChange.Registered change = batch.get(i);
+            var e = change.event();
+            statement.bind(0, e.userId());
+            statement.bind(1, e.fullName());
+            bindNullable(statement, 2, e.gender(), String.class);
+            bindNullable(statement, 3, e.dateOfBirth(), LocalDate.class);
+            bindNullable(statement, 4, e.city(), String.class);
+            bindNullable(statement, 5, e.country(), String.class);
+            bindNullable(statement, 6, e.pincode(), String.class);
+            statement.bind(7, e.occurredAt().atOffset(ZoneOffset.UTC));
+            statement.bind(8, change.eventId());
+        }
+        return rowsUpdated(statement);
+    }
+
+    private static Flux<Long> markVerified(Connection connection, List<ProfileChange.Verified> batch) {
+        if (batch.isEmpty()) {
+            return Flux.empty();
+        }
+        Statement statement = connection.createStatement(MARK_VERIFIED);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            statement.bind(0, batch.get(i).userId());
+            statement.bind(1, batch.get(i).eventId());
+        }
+        return rowsUpdated(statement);
+    }
+
+    private static Flux<Long> rowsUpdated(Statement statement) {
+        return Flux.from(statement.execute()).concatMap(Result::getRowsUpdated);
+    }
+
+    private static <T> void bindNullable(Statement statement, int index, T value, Class<T> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    private static PlayerProfile toProfile(Readable row) {
+        OffsetDateTime registeredAt = row.get("registered_at", OffsetDateTime.class);
+        return new PlayerProfile(
+                row.get("user_id", UUID.class),
+                row.get("full_name", String.class),
+                row.get("gender", String.class),
+                row.get("date_of_birth", LocalDate.class),
+                row.get("city", String.class),
+                row.get("country", String.class),
+                row.get("pincode", String.class),
+                Boolean.TRUE.equals(row.get("verified", Boolean.class)),
+                registeredAt != null ? registeredAt.toInstant() : Instant.EPOCH);
+    }
+}
@@ -0,0 +1,20 @@
+package com.truerally.player.repository;
+
+import com.truerally.common.events.UserRegistered;
+
+import java.util.UUID;
+
+/**
+ * A change to apply to {@code player.profiles}, tagged with the id of the event it
+ * came from. Event ids are UUIDv7, so comparing them orders changes by time.
+ */
+public sealed interface ProfileChange {
+
+    UUID eventId();
+
+    record Registered(UUID eventId, UserRegistered event) implements ProfileChange {
+    }
+
+    record Verified(UUID eventId, UUID userId) implements ProfileChange {
+    }
+}
@@ -0,0 +1,7 @@
+package com.truerally.player.repository;
+
+import java.util.UUID;
+
+/** The searchable text of one profile. */
+public record SearchDocument(UUID userId, String fullName, String city, String country, String pincode) {
+}
@@ -0,0 +1,134 @@
+package com.truerally.player.service;
+
+import com.truerally.player.config.RatingProperties;
+import com.truerally.player.repository.MatchRepository;
+import com.truerally.player.repository.MatchResult;
+import com.truerally.player.repository.PlayerProfileRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the {@link RatingEngine}: restores it at startup, tails
+ * {@code player.matches} for new results and writes periodic snapshots.
+ * <p>
+ * Startup streams every player's location, loads the last snapshot and then lets
+ * the poller replay whatever was recorded after it, so restart time depends on
+ * the snapshot age rather than on the match history. Every replica runs its own
+ * feed; the table is the shared log.
+ */
+@Service
+public class MatchFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchFeed.class);
+    private static final int LOCATION_BATCH = 10_000;
+
+    private final RatingEngine engine;
+    private final MatchRepository matches;
+    private final PlayerProfileRepository profiles;
+    private final RatingProperties properties;
+    private final Path snapshotPath;
+    private final Duration timeout;
+    private final Timer snapshotWrites;
+    private volatile long snapshotSeq = -1;
+
+    public MatchFeed(RatingEngine engine,
+                     MatchRepository matches,
+                     PlayerProfileRepository profiles,
+                     RatingProperties properties,
+                     MeterRegistry meterRegistry) {
+        this.engine = engine;
+        this.matches = matches;
+        this.profiles = profiles;
+        this.properties = properties;
+        this.snapshotPath = Path.of(properties.getSnapshot().getPath());
+        this.timeout = Duration.ofMillis(properties.getFeed().getTimeoutMs());
+        this.snapshotWrites = meterRegistry.timer("player.rating.snapshot.write");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofPlatform().name("rating-load").daemon().start(this::load);
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        try {
+            profiles.findLocations()
+                    .buffer(LOCATION_BATCH)
+                    .doOnNext(engine::locate)
+                    .then()
+                    .block();
+            if (Files.exists(snapshotPath)) {
+                try {
+                    RatingSnapshot snapshot = RatingSnapshot.read(snapshotPath);
+                    engine.restore(snapshot);
+                    snapshotSeq = snapshot.appliedSeq();
+                    log.info("event=rating_snapshot_loaded players={} seq={}", snapshot.size(), snapshot.appliedSeq());
+                } catch (IOException e) {
+                    // Replaying the full history is slower but gives the same ratings
+                    log.warn("event=rating_snapshot_unreadable path={} error={}", snapshotPath, e.getMessage());
+                }
+            }
+            engine.markReady();
+            log.info("event=rating_engine_ready seq={} ms={}", engine.appliedSeq(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.error("event=rating_engine_load_failed error={}", e.toString(), e);
+        }
+    }
+
+    /** Applies new results until caught up; waits for the next tick once a poll comes back short. */
+    @Scheduled(fixedDelayString = "${player.rating.feed.poll-interval-ms:200}")
+    public void poll() {
+        if (!engine.isReady()) {
+            return;
+        }
+        int batchSize = properties.getFeed().getBatchSize();
+        List<MatchResult> batch;
+        do {
+            batch = matches.findAfter(engine.appliedSeq(), batchSize).collectList().block(timeout);
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            engine.apply(batch);
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${player.rating.snapshot.interval-ms:60000}",
+            initialDelayString = "${player.rating.snapshot.interval-ms:60000}")
+    public void snapshot() {
+        if (!engine.isReady() || engine.appliedSeq() == snapshotSeq) {
+            return;
+        }
+        long start = System.nanoTime();
+        RatingSnapshot snapshot = engine.snapshot();
+        try {
+            snapshot.write(snapshotPath);
+            snapshotSeq = snapshot.appliedSeq();
+            snapshotWrites.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.info("event=rating_snapshot_written players={} seq={} ms={}", snapshot.size(), snapshot.appliedSeq(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            log.warn("event=rating_snapshot_failed path={} error={}", snapshotPath, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        snapshot();
+    }
+}
@@ -0,0 +1,164 @@
+package com.truerally.player.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truerally.player.config.IngestProperties;
+import com.truerally.player.dto.IngestReport;
+import com.truerally.player.repository.MatchRepository;
+import com.truerally.player.repository.MatchResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a bulk upload of match results into {@code player.matches}.
+ * <p>
+ * The body is split into lines as it arrives, each line is parsed and validated
+ * on its own, and valid results are written in {@code COPY} batches. Batches are
+ * written one at a time and the next is only assembled while the previous one is
+ * in flight, so memory stays at about two batches whatever the upload size, and a
+ * slow database slows reads from the client's socket rather than filling the heap.
+ * The rating engine picks the rows up through {@link MatchFeed} like any others.
+ */
+@Service
+@EnableConfigurationProperties(IngestProperties.class)
+public class MatchIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchIngestService.class);
+    private static final ResolvableType STRING = ResolvableType.forClass(String.class);
+
+    private final RatingEngine engine;
+    private final RatingService ratingService;
+    private final MatchRepository matches;
+    private final IngestProperties properties;
+    private final MatchLineParser parser;
+    private final StringDecoder decoder;
+    private final Counter acceptedLines;
+    private final Counter rejectedLines;
+    private final Timer batchTimer;
+
+    public MatchIngestService(RatingEngine engine,
+                              RatingService ratingService,
+                              MatchRepository matches,
+                              IngestProperties properties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.engine = engine;
+        this.ratingService = ratingService;
+        this.matches = matches;
+        this.properties = properties;
+        this.parser = new MatchLineParser(objectMapper);
+        this.decoder = StringDecoder.allMimeTypes(List.of("\n"), true);
+        this.decoder.setMaxInMemorySize(properties.getMaxLineBytes());
+        this.acceptedLines = meterRegistry.counter("player.ingest.lines", "result", "accepted");
+        this.rejectedLines = meterRegistry.counter("player.ingest.lines", "result", "rejected");
+        this.batchTimer = meterRegistry.timer("player.ingest.batch");
+    }
+
+    public Mono<IngestReport> ingest(Flux<DataBuffer> body, MatchLineParser.Format format) {
+        if (!engine.isReady()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "ratings are still loading"));
+        }
+        return Mono.defer(() -> {
+            Report report = new Report(properties.getMaxReportedErrors());
+            return decoder.decode(body, STRING, null, null)
+                    .<Line>handle((text, sink) -> {
+                        Line line = report.parse(text, format);
+                        if (line != null) {
+                            sink.next(line);
+                        }
+                    })
+                    .buffer(properties.getBatchSize())
+                    .concatMap(batch -> write(batch).doOnNext(n -> report.committed(batch)), 1)
+                    .then(Mono.fromSupplier(() -> report.build(null)))
+                    .onErrorResume(e -> !(e instanceof ResponseStatusException), e -> {
+                        log.warn("event=match_ingest_aborted lines={} committed_through={} error={}",
+                                report.lines, report.committedThroughLine, e.toString());
+                        return Mono.just(report.build(e.getMessage()));
+                    });
+        });
+    }
+
+    private Mono<Long> write(List<Line> batch) {
+        List<MatchResult> results = new ArrayList<>(batch.size());
+        for (Line line : batch) {
+            results.add(line.match());
+        }
+        Timer.Sample sample = Timer.start();
+        return matches.copy(results).doOnNext(n -> sample.stop(batchTimer));
+    }
+
+    private record Line(long number, MatchResult match) {
+    }
+
+    /**
+     * Running totals for one upload. Reactor delivers a sequence's signals one at
+     * a time, so plain fields are enough.
+     */
+    private final class Report {
+
+        private final int maxErrors;
+        private final List<IngestReport.LineError> errors = new ArrayList<>();
+        private long lines;
+        private long accepted;
+        private long rejected;
+        private long committedThroughLine;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        Line parse(String text, MatchLineParser.Format format) {
+            long number = ++lines;
+            if (text.isBlank() || (number == 1 && format == MatchLineParser.Format.CSV
+                    && MatchLineParser.isCsvHeader(text))) {
+                return null;
+            }
+            try {
+                MatchResult match = parser.parse(text.strip(), format);
+                String problem = ratingService.validate(match);
+                if (problem == null) {
+                    return new Line(number, match);
+                }
+                reject(number, problem);
+            } catch (IllegalArgumentException e) {
+                reject(number, e.getMessage());
+            }
+            return null;
+        }
+
+        void committed(List<Line> batch) {
+            accepted += batch.size();
+            committedThroughLine = batch.getLast().number();
+            acceptedLines.increment(batch.size());
+        }
+
+        private void reject(long number, String problem) {
+            rejected++;
+            rejectedLines.increment();
+            if (errors.size() < maxErrors) {
+                errors.add(new IngestReport.LineError(number, problem));
+            }
+        }
+
+        IngestReport build(String aborted) {
+            // With no failure every line was read, so the last line counts as committed
+            long through = aborted == null ? lines : committedThroughLine;
+            return new IngestReport(lines, accepted, rejected, through, List.copyOf(errors),
+                    rejected > errors.size(), aborted);
+        }
+    }
+}
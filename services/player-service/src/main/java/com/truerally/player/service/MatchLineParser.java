@@ -0,0 +1,75 @@
+package com.truerally.player.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truerally.player.dto.MatchResultRequest;
+import com.truerally.player.repository.MatchResult;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+/**
+ * Maps one line of a bulk upload to a {@link MatchResult}. Throws
+ * {@link IllegalArgumentException} with a message fit for the error report.
+ * <ul>
+ *   <li>NDJSON: {@code {"winnerId":"…","loserId":"…","playedAt":"2026-05-01T10:15:30Z"}}</li>
+ *   <li>CSV: {@code winnerId,loserId,playedAt}, optionally under a header row</li>
+ * </ul>
+ */
+public class MatchLineParser {
+
+    public enum Format { NDJSON, CSV }
+
+    private final ObjectMapper objectMapper;
+
+    public MatchLineParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public MatchResult parse(String line, Format format) {
+        return format == Format.CSV ? parseCsv(line) : parseJson(line);
+    }
+
+    /** True for a CSV header row, which is skipped rather than reported. */
+    public static boolean isCsvHeader(String line) {
+        return line.regionMatches(true, 0, "winner", 0, 6);
+    }
+
+    private MatchResult parseJson(String line) {
+        try {
+            MatchResultRequest request = objectMapper.readValue(line, MatchResultRequest.class);
+            return MatchResult.of(request.winnerId(), request.loserId(), request.playedAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static MatchResult parseCsv(String line) {
+        int first = line.indexOf(',');
+        int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+        if (second < 0 || line.indexOf(',', second + 1) >= 0) {
+            throw new IllegalArgumentException("expected 3 fields: winnerId,loserId,playedAt");
+        }
+        return MatchResult.of(
+                uuid(line.substring(0, first).strip(), "winnerId"),
+                uuid(line.substring(first + 1, second).strip(), "loserId"),
+                instant(line.substring(second + 1).strip()));
+    }
+
+    private static UUID uuid(String value, String field) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(field + " is not a UUID");
+        }
+    }
+
+    private static Instant instant(String value) {
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("playedAt is not an ISO-8601 instant");
+        }
+    }
+}
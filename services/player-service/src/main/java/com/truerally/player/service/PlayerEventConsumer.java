@@ -0,0 +1,136 @@
+package com.truerally.player.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truerally.common.events.AuthEvent;
+import com.truerally.common.events.AuthEventHeaders;
+import com.truerally.common.events.AuthEventType;
+import com.truerally.common.events.UserRegistered;
+import com.truerally.common.events.UserVerified;
+import com.truerally.player.config.PlayerEventsProperties;
+import com.truerally.player.repository.PlayerLocation;
+import com.truerally.player.repository.PlayerProfileRepository;
+import com.truerally.player.repository.ProfileChange;
+import com.truerally.player.repository.SearchDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps {@code player.profiles} in step with the auth topic. Each polled batch is
+ * turned into one round of batched writes; the listener thread waits for them so
+ * offsets are only committed once the batch is stored. Session events are skipped
+ * on the type header without being parsed. New players' locations are passed to
+ * the {@link RatingEngine} for the country and city leaderboards, and their
+ * names and addresses to the {@link PlayerSearchIndex}.
+ */
+@Component
+@EnableConfigurationProperties(PlayerEventsProperties.class)
+public class PlayerEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerEventConsumer.class);
+
+    private final PlayerProfileRepository profiles;
+    private final RatingEngine ratingEngine;
+    private final PlayerSearchIndex searchIndex;
+    private final ObjectMapper objectMapper;
+    private final Duration writeTimeout;
+    private final Counter registered;
+    private final Counter verified;
+    private final Counter skipped;
+    private final Timer batchTimer;
+
+    public PlayerEventConsumer(PlayerProfileRepository profiles,
+                               RatingEngine ratingEngine,
+                               PlayerSearchIndex searchIndex,
+                               ObjectMapper objectMapper,
+                               PlayerEventsProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.profiles = profiles;
+        this.ratingEngine = ratingEngine;
+        this.searchIndex = searchIndex;
+        this.objectMapper = objectMapper;
+        this.writeTimeout = Duration.ofMillis(properties.getWriteTimeoutMs());
+        this.registered = meterRegistry.counter("player.events.applied", "type", AuthEventType.USER_REGISTERED.wireName());
+        this.verified = meterRegistry.counter("player.events.applied", "type", AuthEventType.USER_VERIFIED.wireName());
+        this.skipped = meterRegistry.counter("player.events.skipped");
+        this.batchTimer = meterRegistry.timer("player.events.batch");
+    }
+
+    @KafkaListener(topics = AuthEvent.TOPIC, autoStartup = "${player.events.consumer.enabled:true}")
+    public void onEvents(List<ConsumerRecord<String, byte[]>> records) {
+        List<ProfileChange> changes = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, byte[]> record : records) {
+            ProfileChange change = toChange(record);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start();
+        // Throws on failure or timeout, so the container redelivers the whole batch
+        profiles.apply(changes).block(writeTimeout);
+        sample.stop(batchTimer);
+        List<PlayerLocation> locations = new ArrayList<>();
+        List<SearchDocument> documents = new ArrayList<>();
+        for (ProfileChange change : changes) {
+            if (change instanceof ProfileChange.Registered r) {
+                var e = r.event();
+                locations.add(new PlayerLocation(e.userId(), e.country(), e.city()));
+                documents.add(new SearchDocument(e.userId(), e.fullName(), e.city(), e.country(), e.pincode()));
+                registered.increment();
+            } else {
+                verified.increment();
+            }
+        }
+        if (!locations.isEmpty()) {
+            ratingEngine.locate(locations);
+            searchIndex.index(documents);
+        }
+        log.debug("event=player_events_applied records={} changes={}", records.size(), changes.size());
+    }
+
+    private ProfileChange toChange(ConsumerRecord<String, byte[]> record) {
+        AuthEventType type = AuthEventType.fromWireName(header(record, AuthEventHeaders.EVENT_TYPE));
+        if (type != AuthEventType.USER_REGISTERED && type != AuthEventType.USER_VERIFIED) {
+            return null;
+        }
+        String eventId = header(record, AuthEventHeaders.EVENT_ID);
+        try {
+            if (eventId == null) {
+                throw new IOException("missing " + AuthEventHeaders.EVENT_ID + " header");
+            }
+            UUID id = UUID.fromString(eventId);
+            if (type == AuthEventType.USER_REGISTERED) {
+                return new ProfileChange.Registered(id, objectMapper.readValue(record.value(), UserRegistered.class));
+            }
+            return new ProfileChange.Verified(id, objectMapper.readValue(record.value(), UserVerified.class).userId());
+        } catch (IOException | IllegalArgumentException e) {
+            // A poison record must not stall the partition for every later player
+            skipped.increment();
+            log.warn("event=player_event_unreadable type={} partition={} offset={} error={}",
+                    type, record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.truerally.player.service;
+
+import com.truerally.player.config.SearchProperties;
+import com.truerally.player.dto.PlayerSearchHit;
+import com.truerally.player.repository.PlayerProfileRepository;
+import com.truerally.player.repository.SearchDocument;
+import com.truerally.player.util.PrefixIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Player autocomplete over name, city, country and pincode, served from a
+ * {@link PrefixIndex} in memory. The index is rebuilt from a streaming scan of
+ * {@code player.profiles} at startup and then kept current by
+ * {@link PlayerEventConsumer}; indexing a profile twice with the same text is a
+ * no-op, so the scan and the consumer may overlap.
+ */
+@Service
+@EnableConfigurationProperties(SearchProperties.class)
+public class PlayerSearchIndex {
+
+    public static final int MAX_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final Logger log = LoggerFactory.getLogger(PlayerSearchIndex.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PrefixIndex index;
+    private final PlayerProfileRepository profiles;
+    private final int loadBatchSize;
+    private final Timer queries;
+    private volatile boolean ready;
+
+    public PlayerSearchIndex(PlayerProfileRepository profiles, SearchProperties properties, MeterRegistry meterRegistry) {
+        this.index = new PrefixIndex(properties.getExpectedPlayers(), properties.getMaxCandidates());
+        this.profiles = profiles;
+        this.loadBatchSize = properties.getLoadBatchSize();
+        this.queries = meterRegistry.timer("player.search.query");
+        Gauge.builder("player.search.players", this, search -> search.read(search.index::size))
+                .register(meterRegistry);
+        Gauge.builder("player.search.memory", this, search -> search.read(search.index::memoryBytes))
+                .baseUnit("bytes")
+                .description("Approximate heap held by the search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofPlatform().name("search-load").daemon().start(this::load);
+    }
+
+    void load() {
+        long start = System.nanoTime();
+        try {
+            profiles.findSearchDocuments()
+                    .buffer(loadBatchSize)
+                    .doOnNext(this::index)
+                    .then()
+                    .block();
+            lock.writeLock().lock();
+            try {
+                index.trimToSize();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("event=search_index_ready players={} terms={} memoryMb={} ms={}",
+                    read(index::size), read(index::termCount), read(index::memoryBytes) >> 20,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            log.error("event=search_index_load_failed error={}", e.toString(), e);
+        }
+    }
+
+    /** Adds or refreshes profiles; unchanged ones are skipped. */
+    public void index(List<SearchDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            for (SearchDocument d : documents) {
+                index.put(d.userId(), d.fullName(), d.city(), d.country(), d.pincode());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Best matches for what has been typed so far; every word is read as a prefix and all must match. */
+    public List<PlayerSearchHit> search(String query, int limit) {
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "search index is still loading");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (query == null || query.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "q is required and at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        long start = System.nanoTime();
+        List<PrefixIndex.Hit> hits = read(() -> index.search(query, limit));
+        queries.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return hits.stream().map(PlayerSearchHit::of).toList();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
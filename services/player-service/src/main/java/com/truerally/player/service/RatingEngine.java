@@ -0,0 +1,397 @@
+package com.truerally.player.service;
+
+import com.truerally.player.config.RatingProperties;
+import com.truerally.player.repository.MatchResult;
+import com.truerally.player.repository.PlayerLocation;
+import com.truerally.player.util.Glicko2;
+import com.truerally.player.util.RankForest;
+import com.truerally.player.util.UuidSlotMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory Glicko-2 ratings and leaderboards for every player.
+ * <p>
+ * Each player id maps to a dense slot; rating, deviation, volatility, games and
+ * location are parallel primitive arrays indexed by that slot. Rated players are
+ * kept in three {@link RankForest}s (global, per country, per city) ordered by
+ * rating, so a player's rank and any page of a leaderboard cost O(log n) instead
+ * of a sort over the table.
+ * <p>
+ * Results are applied in {@code player.matches} sequence order, one at a time, and
+ * {@link #appliedSeq()} records how far the engine has got; together with
+ * {@link RatingSnapshot} that lets a restart resume from the last snapshot rather
+ * than replaying every match. Reads share a lock and are served from WebFlux
+ * event-loop threads, so writers take it exclusively for at most
+ * {@value #WRITE_CHUNK} results or locations at a time. The lock is fair, so
+ * readers waiting between two chunks go first.
+ */
+@Service
+@EnableConfigurationProperties(RatingProperties.class)
+public class RatingEngine {
+
+    /** Group id for players whose country or city is not known yet. */
+    static final int UNKNOWN = 0;
+    private static final int GLOBAL = 0;
+    /** Most writes applied per hold of the write lock; each is a few microseconds. */
+    static final int WRITE_CHUNK = 100;
+
+    public record PlayerRating(UUID userId, double rating, double deviation, int games,
+                               int rank, Integer countryRank, Integer cityRank) {
+    }
+
+    public record RankedPlayer(int rank, UUID userId, double rating, double deviation, int games) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final Glicko2 glicko;
+    private final UuidSlotMap players;
+    private final Map<String, Integer> countryIds = new HashMap<>();
+    private final Map<String, Integer> cityIds = new HashMap<>();
+    private final RankForest.SlotOrder byRating;
+    private final RankForest global;
+    private final RankForest byCountry;
+    private final RankForest byCity;
+    private final double[] winnerOut = new double[3];
+    private final double[] loserOut = new double[3];
+    private final Counter applied;
+
+    private double[] rating;
+    private double[] deviation;
+    private double[] volatility;
+    private int[] games;
+    private int[] country;
+    private int[] city;
+    private int count;
+    private long appliedSeq;
+    private volatile boolean ready;
+
+    public RatingEngine(RatingProperties properties, MeterRegistry meterRegistry) {
+        int capacity = Math.max(16, properties.getExpectedPlayers());
+        this.glicko = new Glicko2(properties.getTau(), properties.getMinDeviation());
+        this.players = new UuidSlotMap(capacity);
+        this.rating = new double[capacity];
+        this.deviation = new double[capacity];
+        this.volatility = new double[capacity];
+        this.games = new int[capacity];
+        this.country = new int[capacity];
+        this.city = new int[capacity];
+        // Highest rating first; slot breaks ties so the order is total
+        this.byRating = (a, b) -> {
+            int c = Double.compare(rating[b], rating[a]);
+            return c != 0 ? c : Integer.compare(a, b);
+        };
+        this.global = new RankForest(byRating, capacity, 1);
+        this.byCountry = new RankForest(byRating, capacity, 256);
+        this.byCity = new RankForest(byRating, capacity, 4096);
+        this.applied = meterRegistry.counter("player.rating.applied");
+        Gauge.builder("player.rating.players", this, engine -> engine.read(() -> engine.global.size(GLOBAL)))
+                .description("Players with at least one rated match")
+                .register(meterRegistry);
+        Gauge.builder("player.rating.applied_seq", this, RatingEngine::appliedSeq)
+                .register(meterRegistry);
+    }
+
+    /** Records where a player is based, moving them between country and city boards. */
+    public void locate(List<PlayerLocation> locations) {
+        for (int from = 0; from < locations.size(); from += WRITE_CHUNK) {
+            List<PlayerLocation> chunk = locations.subList(from, Math.min(from + WRITE_CHUNK, locations.size()));
+            lock.writeLock().lock();
+            try {
+                for (PlayerLocation location : chunk) {
+                    int slot = slot(location.userId());
+                    int countryId = countryId(location.country());
+                    int cityId = cityId(location.country(), location.city());
+                    if (country[slot] != countryId || city[slot] != cityId) {
+                        unrank(slot);
+                        country[slot] = countryId;
+                        city[slot] = cityId;
+                        rank(slot);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies results in order, skipping any at or below {@link #appliedSeq()} so a
+     * batch that overlaps the snapshot or a previous poll is harmless. Readers see
+     * the batch land {@value #WRITE_CHUNK} results at a time.
+     *
+     * @return number of results applied
+     */
+    public int apply(List<MatchResult> matches) {
+        int n = 0;
+        for (int from = 0; from < matches.size(); from += WRITE_CHUNK) {
+            n += applyChunk(matches.subList(from, Math.min(from + WRITE_CHUNK, matches.size())));
+        }
+        applied.increment(n);
+        return n;
+    }
+
+    private int applyChunk(List<MatchResult> matches) {
+        int n = 0;
+        lock.writeLock().lock();
+        try {
+            for (MatchResult match : matches) {
+                if (match.seq() <= appliedSeq) {
+                    continue;
+                }
+                int winner = slot(match.winnerId());
+                int loser = slot(match.loserId());
+                unrank(winner);
+                unrank(loser);
+                glicko.rate(rating[winner], deviation[winner], volatility[winner],
+                        rating[loser], deviation[loser], 1, winnerOut);
+                glicko.rate(rating[loser], deviation[loser], volatility[loser],
+                        rating[winner], deviation[winner], 0, loserOut);
+                set(winner, winnerOut);
+                set(loser, loserOut);
+                rank(winner);
+                rank(loser);
+                appliedSeq = match.seq();
+                n++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return n;
+    }
+
+    public boolean isKnown(UUID userId) {
+        return read(() -> players.get(userId) >= 0);
+    }
+
+    /** Current rating and 1-based ranks; empty until the player has a rated match. */
+    public Optional<PlayerRating> ratingOf(UUID userId) {
+        return read(() -> {
+            int slot = players.get(userId);
+            if (slot < 0 || games[slot] == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new PlayerRating(userId, rating[slot], deviation[slot], games[slot],
+                    global.rank(GLOBAL, slot) + 1,
+                    country[slot] == UNKNOWN ? null : byCountry.rank(country[slot], slot) + 1,
+                    city[slot] == UNKNOWN ? null : byCity.rank(city[slot], slot) + 1));
+        });
+    }
+
+    /**
+     * One page of a leaderboard: global when {@code countryName} is null, else the
+     * country's, else the city's within that country.
+     */
+    public List<RankedPlayer> leaderboard(String countryName, String cityName, int offset, int limit) {
+        return read(() -> {
+            RankForest forest;
+            int group;
+            if (countryName == null) {
+                forest = global;
+                group = GLOBAL;
+            } else if (cityName == null) {
+                forest = byCountry;
+                group = countryIds.getOrDefault(countryKey(countryName), UNKNOWN);
+            } else {
+                forest = byCity;
+                group = cityIds.getOrDefault(cityKey(countryName, cityName), UNKNOWN);
+            }
+            if (countryName != null && group == UNKNOWN) {
+                return List.of();
+            }
+            List<RankedPlayer> page = new ArrayList<>(Math.min(limit, forest.size(group)));
+            forest.forEach(group, offset, limit, slot -> page.add(new RankedPlayer(offset + page.size() + 1,
+                    players.idOf(slot), rating[slot], deviation[slot], games[slot])));
+            return page;
+        });
+    }
+
+    public long appliedSeq() {
+        return read(() -> appliedSeq);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    /** Copies the rated players and the applied position, holding the read lock only for the copy. */
+    public RatingSnapshot snapshot() {
+        return read(() -> {
+            int rated = global.size(GLOBAL);
+            long[] msb = new long[rated];
+            long[] lsb = new long[rated];
+            double[] r = new double[rated];
+            double[] d = new double[rated];
+            double[] v = new double[rated];
+            int[] g = new int[rated];
+            int i = 0;
+            for (int slot = 0; slot < count; slot++) {
+                if (games[slot] > 0) {
+                    msb[i] = players.mostSignificantBits(slot);
+                    lsb[i] = players.leastSignificantBits(slot);
+                    r[i] = rating[slot];
+                    d[i] = deviation[slot];
+                    v[i] = volatility[slot];
+                    g[i] = games[slot];
+                    i++;
+                }
+            }
+            return new RatingSnapshot(appliedSeq, msb, lsb, r, d, v, g);
+        });
+    }
+
+    /**
+     * Loads a snapshot into an engine that has not applied any results yet. The
+     * leaderboards are built in one pass from a single sort rather than by
+     * inserting players one at a time.
+     */
+    public void restore(RatingSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (appliedSeq != 0) {
+                throw new IllegalStateException("ratings already applied up to " + appliedSeq);
+            }
+            for (int i = 0; i < snapshot.size(); i++) {
+                int slot = slot(new UUID(snapshot.msb()[i], snapshot.lsb()[i]));
+                rating[slot] = snapshot.rating()[i];
+                deviation[slot] = snapshot.deviation()[i];
+                volatility[slot] = snapshot.volatility()[i];
+                games[slot] = snapshot.games()[i];
+            }
+            int[] rated = new int[count];
+            int n = 0;
+            for (int slot = 0; slot < count; slot++) {
+                if (games[slot] > 0) {
+                    rated[n++] = slot;
+                }
+            }
+            rated = Arrays.copyOf(rated, n);
+            RankForest.sort(rated, byRating);
+            global.build(GLOBAL, rated, 0, rated.length);
+            buildGroups(byCountry, country, rated);
+            buildGroups(byCity, city, rated);
+            appliedSeq = snapshot.appliedSeq();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Splits slots already in rating order by group, keeping the order, and builds each group's tree. */
+    private static void buildGroups(RankForest forest, int[] groupOf, int[] sorted) {
+        int groups = 0;
+        for (int slot : sorted) {
+            groups = Math.max(groups, groupOf[slot] + 1);
+        }
+        int[] start = new int[groups + 1];
+        for (int slot : sorted) {
+            start[groupOf[slot] + 1]++;
+        }
+        for (int g = 0; g < groups; g++) {
+            start[g + 1] += start[g];
+        }
+        int[] byGroup = new int[sorted.length];
+        int[] next = Arrays.copyOf(start, groups);
+        for (int slot : sorted) {
+            byGroup[next[groupOf[slot]]++] = slot;
+        }
+        for (int g = 0; g < groups; g++) {
+            forest.build(g, byGroup, start[g], start[g + 1]);
+        }
+    }
+
+    private int slot(UUID userId) {
+        int slot = players.getOrAdd(userId);
+        if (slot == count) {
+            ensureCapacity(slot + 1);
+            rating[slot] = Glicko2.DEFAULT_RATING;
+            deviation[slot] = Glicko2.DEFAULT_DEVIATION;
+            volatility[slot] = Glicko2.DEFAULT_VOLATILITY;
+            count++;
+        }
+        return slot;
+    }
+
+    private void set(int slot, double[] out) {
+        rating[slot] = out[0];
+        deviation[slot] = out[1];
+        volatility[slot] = out[2];
+        games[slot]++;
+    }
+
+    private void rank(int slot) {
+        if (games[slot] > 0) {
+            global.insert(GLOBAL, slot);
+            byCountry.insert(country[slot], slot);
+            byCity.insert(city[slot], slot);
+        }
+    }
+
+    private void unrank(int slot) {
+        if (games[slot] > 0) {
+            global.remove(GLOBAL, slot);
+            byCountry.remove(country[slot], slot);
+            byCity.remove(city[slot], slot);
+        }
+    }
+
+    private int countryId(String name) {
+        String key = countryKey(name);
+        return key == null ? UNKNOWN : countryIds.computeIfAbsent(key, k -> countryIds.size() + 1);
+    }
+
+    private int cityId(String countryName, String cityName) {
+        String key = cityKey(countryName, cityName);
+        return key == null ? UNKNOWN : cityIds.computeIfAbsent(key, k -> cityIds.size() + 1);
+    }
+
+    private static String countryKey(String name) {
+        return name == null || name.isBlank() ? null : name.strip().toUpperCase(Locale.ROOT);
+    }
+
+    private static String cityKey(String countryName, String cityName) {
+        String countryKey = countryKey(countryName);
+        if (countryKey == null || cityName == null || cityName.isBlank()) {
+            return null;
+        }
+        return countryKey + '/' + cityName.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > rating.length) {
+            int grown = Math.max(capacity, rating.length * 2);
+            rating = Arrays.copyOf(rating, grown);
+            deviation = Arrays.copyOf(deviation, grown);
+            volatility = Arrays.copyOf(volatility, grown);
+            games = Arrays.copyOf(games, grown);
+            country = Arrays.copyOf(country, grown);
+            city = Arrays.copyOf(city, grown);
+        }
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.truerally.player.service;
+
+import com.truerally.player.dto.LeaderboardEntry;
+import com.truerally.player.dto.MatchResultRequest;
+import com.truerally.player.dto.PlayerRatingResponse;
+import com.truerally.player.repository.MatchRepository;
+import com.truerally.player.repository.MatchResult;
+import com.truerally.player.repository.PlayerProfileRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class RatingService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+    /** Clock skew tolerated on {@code playedAt} before a result is rejected as from the future. */
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final RatingEngine engine;
+    private final MatchRepository matches;
+    private final PlayerProfileRepository profiles;
+
+    public RatingService(RatingEngine engine, MatchRepository matches, PlayerProfileRepository profiles) {
+        this.engine = engine;
+        this.matches = matches;
+        this.profiles = profiles;
+    }
+
+    /** Validates and stores one result; the engine picks it up on its next poll. */
+    public Mono<Long> record(MatchResultRequest request) {
+        MatchResult match = MatchResult.of(request.winnerId(), request.loserId(), request.playedAt());
+        String problem = validate(match);
+        if (problem != null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, problem));
+        }
+        return matches.insert(List.of(match)).map(List::getFirst);
+    }
+
+    /** Null if the result can be recorded, otherwise why not. */
+    public String validate(MatchResult match) {
+        requireReady();
+        if (match.winnerId() == null || match.loserId() == null || match.playedAt() == null) {
+            return "winnerId, loserId and playedAt are required";
+        }
+        if (match.winnerId().equals(match.loserId())) {
+            return "winner and loser must be different players";
+        }
+        if (match.playedAt().isAfter(Instant.now().plus(MAX_CLOCK_SKEW))) {
+            return "playedAt is in the future";
+        }
+        if (!engine.isKnown(match.winnerId())) {
+            return "unknown player " + match.winnerId();
+        }
+        if (!engine.isKnown(match.loserId())) {
+            return "unknown player " + match.loserId();
+        }
+        return null;
+    }
+
+    public Optional<PlayerRatingResponse> ratingOf(UUID userId) {
+        requireReady();
+        return engine.ratingOf(userId).map(PlayerRatingResponse::of);
+    }
+
+    public Mono<List<LeaderboardEntry>> leaderboard(String country, String city, int offset, int limit) {
+        requireReady();
+        if (city != null && country == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "city needs a country"));
+        }
+        if (offset < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "offset must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE));
+        }
+        List<RatingEngine.RankedPlayer> page = engine.leaderboard(country, city, offset, limit);
+        return profiles.findNames(page.stream().map(RatingEngine.RankedPlayer::userId).toList())
+                .map(names -> page.stream()
+                        .map(player -> LeaderboardEntry.of(player, names.get(player.userId())))
+                        .toList());
+    }
+
+    private void requireReady() {
+        if (!engine.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "ratings are still loading");
+        }
+    }
+}
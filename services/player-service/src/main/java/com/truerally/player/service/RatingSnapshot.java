@@ -0,0 +1,107 @@
+package com.truerally.player.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time copy of every rated player plus the last applied match sequence.
+ * <p>
+ * File layout: magic, version, applied seq, count, then one fixed-size record per
+ * player (id, rating, deviation, volatility, games) and a CRC32C of everything
+ * before it. Writes go to a temporary file that is moved into place, so a crash
+ * mid-write leaves the previous snapshot intact.
+ */
+public record RatingSnapshot(long appliedSeq,
+                             long[] msb,
+                             long[] lsb,
+                             double[] rating,
+                             double[] deviation,
+                             double[] volatility,
+                             int[] games) {
+
+    private static final int MAGIC = 0x54525254; // "TRRT"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public int size() {
+        return msb.length;
+    }
+
+    public void write(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32C crc = new CRC32C();
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE), crc))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(appliedSeq);
+                out.writeInt(size());
+                for (int i = 0; i < size(); i++) {
+                    out.writeLong(msb[i]);
+                    out.writeLong(lsb[i]);
+                    out.writeDouble(rating[i]);
+                    out.writeDouble(deviation[i]);
+                    out.writeDouble(volatility[i]);
+                    out.writeInt(games[i]);
+                }
+                out.flush();
+                // The checksum covers everything above and is not part of itself
+                out.writeLong(crc.getValue());
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Reads a snapshot written by {@link #write(Path)}; fails on any mismatch rather than loading partial data. */
+    public static RatingSnapshot read(Path path) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE), crc))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a rating snapshot: " + path);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported rating snapshot version " + version);
+            }
+            long appliedSeq = in.readLong();
+            int n = in.readInt();
+            if (n < 0) {
+                throw new IOException("corrupt rating snapshot: negative count");
+            }
+            long[] msb = new long[n];
+            long[] lsb = new long[n];
+            double[] rating = new double[n];
+            double[] deviation = new double[n];
+            double[] volatility = new double[n];
+            int[] games = new int[n];
+            for (int i = 0; i < n; i++) {
+                msb[i] = in.readLong();
+                lsb[i] = in.readLong();
+                rating[i] = in.readDouble();
+                deviation[i] = in.readDouble();
+                volatility[i] = in.readDouble();
+                games[i] = in.readInt();
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("rating snapshot checksum mismatch: " + path);
+            }
+            return new RatingSnapshot(appliedSeq, msb, lsb, rating, deviation, volatility, games);
+        }
+    }
+}
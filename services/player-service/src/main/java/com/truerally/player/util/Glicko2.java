@@ -0,0 +1,103 @@
+package com.truerally.player.util;
+
+/**
+ * Glicko-2 update for a single game, applied to each side as soon as the result
+ * is known rather than once per rating period. Ratings and deviations are on the
+ * familiar Glicko scale (1500 / 350); the conversion to the internal scale is
+ * done here.
+ *
+ * @see <a href="http://www.glicko.net/glicko/glicko2.pdf">Example of the Glicko-2 system</a>
+ */
+public final class Glicko2 {
+
+    public static final double DEFAULT_RATING = 1500;
+    public static final double DEFAULT_DEVIATION = 350;
+    public static final double DEFAULT_VOLATILITY = 0.06;
+
+    private static final double SCALE = 173.7178;
+    private static final double EPSILON = 0.000001;
+
+    private final double tau;
+    private final double minDeviation;
+
+    /**
+     * @param tau          constrains volatility change; 0.3 to 1.2, lower for steadier ratings
+     * @param minDeviation floor on the rating deviation so long-active players still move
+     */
+    public Glicko2(double tau, double minDeviation) {
+        this.tau = tau;
+        this.minDeviation = minDeviation;
+    }
+
+    /**
+     * Rates one player after one game.
+     *
+     * @param out    receives the new rating, deviation and volatility, in that order
+     * @param score  1 for a win, 0 for a loss
+     */
+    public void rate(double rating, double deviation, double volatility,
+                     double opponentRating, double opponentDeviation,
+                     double score, double[] out) {
+        double mu = (rating - DEFAULT_RATING) / SCALE;
+        double phi = deviation / SCALE;
+        double muJ = (opponentRating - DEFAULT_RATING) / SCALE;
+        double g = g(opponentDeviation / SCALE);
+        double expected = 1 / (1 + Math.exp(-g * (mu - muJ)));
+        double v = 1 / (g * g * expected * (1 - expected));
+        double delta = v * g * (score - expected);
+
+        double sigma = volatility(phi, v, delta, volatility);
+        double phiStar = Math.sqrt(phi * phi + sigma * sigma);
+        double phiNew = 1 / Math.sqrt(1 / (phiStar * phiStar) + 1 / v);
+        double muNew = mu + phiNew * phiNew * g * (score - expected);
+
+        out[0] = muNew * SCALE + DEFAULT_RATING;
+        out[1] = Math.min(DEFAULT_DEVIATION, Math.max(minDeviation, phiNew * SCALE));
+        out[2] = sigma;
+    }
+
+    private static double g(double phi) {
+        return 1 / Math.sqrt(1 + 3 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    /** Step 5 of the paper: the Illinois variant of regula falsi on f(x). */
+    private double volatility(double phi, double v, double delta, double sigma) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+        double tau2 = tau * tau;
+
+        double lower = a;
+        double upper;
+        if (delta2 > phi2 + v) {
+            upper = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phi2, v, delta2, tau2) < 0) {
+                k++;
+            }
+            upper = a - k * tau;
+        }
+        double fLower = f(lower, a, phi2, v, delta2, tau2);
+        double fUpper = f(upper, a, phi2, v, delta2, tau2);
+        while (Math.abs(upper - lower) > EPSILON) {
+            double c = lower + (lower - upper) * fLower / (fUpper - fLower);
+            double fc = f(c, a, phi2, v, delta2, tau2);
+            if (fc * fUpper <= 0) {
+                lower = upper;
+                fLower = fUpper;
+            } else {
+                fLower /= 2;
+            }
+            upper = c;
+            fUpper = fc;
+        }
+        return Math.exp(lower / 2);
+    }
+
+    private static double f(double x, double a, double phi2, double v, double delta2, double tau2) {
+        double ex = Math.exp(x);
+        double d = phi2 + v + ex;
+        return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / tau2;
+    }
+}
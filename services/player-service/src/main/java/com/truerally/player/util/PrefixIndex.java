@@ -0,0 +1,533 @@
+package com.truerally.player.util;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Type-ahead index over player name, city, country and pincode.
+ * <p>
+ * Text is folded to lower-case ASCII letters and digits (accents dropped, any
+ * other character splits tokens). Every prefix of every token, up to
+ * {@link #MAX_PREFIX} characters, is a term; a term packs losslessly into a
+ * {@code long}, so the dictionary is a primitive open-addressing table. Each term
+ * has a posting list in a plain {@code int[]}: one entry per document, holding the
+ * document number shifted left by three and, in the low bits, a score for how
+ * well the term matched (which field, whole token or only a prefix). Documents
+ * are numbered in insertion order, so lists are sorted by construction and only
+ * ever appended to.
+ * <p>
+ * A query is the AND of its tokens, each read as a prefix. The shortest list
+ * drives the search and the others are probed by galloping, so a selective token
+ * keeps broad ones cheap. Scores are summed per document and the best
+ * {@code limit} kept; for very broad queries ranking covers the first
+ * {@code maxCandidates} matches only.
+ * <p>
+ * Changing a player's text appends a new document and retires the old one, so
+ * the index only grows between rebuilds. Not thread-safe.
+ */
+public final class PrefixIndex {
+
+    /** Longest indexed prefix; longer query tokens are checked against the stored text. */
+    public static final int MAX_PREFIX = 10;
+    private static final int MAX_QUERY_TOKENS = 4;
+    private static final int SCORE_BITS = 3;
+    private static final int SCORE_MASK = (1 << SCORE_BITS) - 1;
+    private static final byte FIELD_SEPARATOR = 0x1f;
+    private static final int[] EMPTY = new int[0];
+
+    /** Searchable fields, weakest first; the ordinal is the field's weight. */
+    public enum Field { PINCODE, COUNTRY, CITY, NAME }
+
+    public record Hit(UUID userId, String fullName, String city, String country, int score) {
+    }
+
+    private final int maxCandidates;
+    private final UuidSlotMap users;
+
+    // Term dictionary: packed prefix -> term number
+    private long[] termKeys;
+    private int[] termIds;
+    private int termMask;
+    private int termCount;
+    private int[][] postings;
+    private int[] postingSize;
+    private byte[] postingBest;
+
+    // Documents: stored text in one arena, owner slot, retired flags
+    private int[] docOfSlot;
+    private int[] slotOfDoc;
+    private int[] docStart;
+    private byte[] arena;
+    private int arenaSize;
+    private int docCount;
+    private int liveCount;
+    private final BitSet retired = new BitSet();
+
+    // Per-document scratch while indexing: distinct terms and their best score
+    private long[] docTerms = new long[64];
+    private int[] docScores = new int[64];
+    private final char[] token = new char[256];
+
+    public PrefixIndex(int expectedDocs, int maxCandidates) {
+        int capacity = Math.max(16, expectedDocs);
+        this.maxCandidates = maxCandidates;
+        this.users = new UuidSlotMap(capacity);
+        int tableSize = Integer.highestOneBit(Math.max(64, capacity) * 2 - 1) << 1;
+        this.termKeys = new long[tableSize];
+        this.termIds = new int[tableSize];
+        this.termMask = tableSize - 1;
+        this.postings = new int[tableSize / 2][];
+        this.postingSize = new int[tableSize / 2];
+        this.postingBest = new byte[tableSize / 2];
+        this.docOfSlot = new int[capacity];
+        Arrays.fill(docOfSlot, -1);
+        this.slotOfDoc = new int[capacity];
+        this.docStart = new int[capacity + 1];
+        this.arena = new byte[capacity * 32];
+    }
+
+    /**
+     * Indexes a player's text, replacing what was there before.
+     *
+     * @return false if the player was already indexed with the same text
+     */
+    public boolean put(UUID userId, String fullName, String city, String country, String pincode) {
+        byte[] text = encode(fullName, city, country, pincode);
+        int slot = users.getOrAdd(userId);
+        if (slot >= docOfSlot.length) {
+            int old = docOfSlot.length;
+            docOfSlot = Arrays.copyOf(docOfSlot, Math.max(slot + 1, old * 2));
+            Arrays.fill(docOfSlot, old, docOfSlot.length, -1);
+        }
+        int previous = docOfSlot[slot];
+        if (previous >= 0) {
+            if (Arrays.equals(arena, docStart[previous], docStart[previous + 1], text, 0, text.length)) {
+                return false;
+            }
+            retired.set(previous);
+            liveCount--;
+        }
+        int doc = addDocument(slot, text);
+        docOfSlot[slot] = doc;
+        liveCount++;
+
+        int terms = 0;
+        terms = collectTerms(fullName, Field.NAME, terms);
+        terms = collectTerms(city, Field.CITY, terms);
+        terms = collectTerms(country, Field.COUNTRY, terms);
+        terms = collectTerms(pincode, Field.PINCODE, terms);
+        for (int i = 0; i < terms; i++) {
+            append(termId(docTerms[i]), doc << SCORE_BITS | docScores[i]);
+        }
+        return true;
+    }
+
+    /** Best matches for a type-ahead query, highest score first; ties go to the earlier player. */
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = queryTokens(query);
+        int n = tokens.size();
+        if (n == 0 || limit <= 0) {
+            return List.of();
+        }
+        int[][] lists = new int[n][];
+        int[] sizes = new int[n];
+        String[] verify = new String[n];
+        // Best total any document could reach; once the top list is full at this score nothing can displace it
+        int maxScore = 0;
+        for (int t = 0; t < n; t++) {
+            String full = tokens.get(t);
+            int term = findTerm(pack(full, Math.min(full.length(), MAX_PREFIX)));
+            if (term < 0) {
+                return List.of();
+            }
+            lists[t] = postings[term];
+            sizes[t] = postingSize[term];
+            maxScore += postingBest[term];
+            verify[t] = full.length() > MAX_PREFIX ? full : null;
+        }
+        sortBySize(lists, sizes, verify);
+
+        int[] topDocs = new int[limit];
+        int[] topScores = new int[limit];
+        int found = 0;
+        int candidates = 0;
+        int[] cursor = new int[n];
+        int[] driver = lists[0];
+        int i = 0;
+        scan:
+        while (i < sizes[0] && candidates < maxCandidates) {
+            int doc = driver[i] >>> SCORE_BITS;
+            int score = driver[i] & SCORE_MASK;
+            for (int t = 1; t < n; t++) {
+                int at = gallop(lists[t], cursor[t], sizes[t], doc << SCORE_BITS);
+                cursor[t] = at;
+                if (at == sizes[t]) {
+                    break scan;
+                }
+                int other = lists[t][at] >>> SCORE_BITS;
+                if (other != doc) {
+                    // Leapfrog: nothing before the other list's next document can match
+                    i = gallop(driver, i + 1, sizes[0], other << SCORE_BITS);
+                    continue scan;
+                }
+                score += lists[t][at] & SCORE_MASK;
+            }
+            i++;
+            if (retired.get(doc) || !verified(doc, verify)) {
+                continue;
+            }
+            candidates++;
+            found = offer(topDocs, topScores, found, doc, score);
+            if (found == limit && topScores[limit - 1] == maxScore) {
+                break;
+            }
+        }
+        List<Hit> hits = new ArrayList<>(found);
+        for (int h = 0; h < found; h++) {
+            hits.add(hit(topDocs[h], topScores[h]));
+        }
+        return hits;
+    }
+
+    /** Releases spare capacity, e.g. after a bulk load; later additions grow lists again as needed. */
+    public void trimToSize() {
+        for (int i = 0; i < termCount; i++) {
+            if (postings[i].length > postingSize[i]) {
+                postings[i] = Arrays.copyOf(postings[i], postingSize[i]);
+            }
+        }
+        arena = Arrays.copyOf(arena, arenaSize);
+    }
+
+    /** Players currently indexed. */
+    public int size() {
+        return liveCount;
+    }
+
+    public int termCount() {
+        return termCount;
+    }
+
+    /** Approximate heap held by the index's arrays, including unused capacity. */
+    public long memoryBytes() {
+        long bytes = termKeys.length * 8L + termIds.length * 4L
+                + postings.length * 4L + postingSize.length * 4L + postingBest.length;
+        for (int i = 0; i < termCount; i++) {
+            bytes += 16 + postings[i].length * 4L;
+        }
+        bytes += docOfSlot.length * 4L + slotOfDoc.length * 4L + docStart.length * 4L + arena.length;
+        bytes += users.size() * 40L;
+        return bytes;
+    }
+
+    // ---- indexing
+
+    private int addDocument(int slot, byte[] text) {
+        int doc = docCount++;
+        if (docCount >= docStart.length) {
+            docStart = Arrays.copyOf(docStart, docStart.length * 2);
+            slotOfDoc = Arrays.copyOf(slotOfDoc, docStart.length);
+        }
+        if (arenaSize + text.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaSize + text.length, arena.length * 2));
+        }
+        System.arraycopy(text, 0, arena, arenaSize, text.length);
+        docStart[doc] = arenaSize;
+        arenaSize += text.length;
+        docStart[doc + 1] = arenaSize;
+        slotOfDoc[doc] = slot;
+        return doc;
+    }
+
+    /** Adds the prefixes of one field's tokens to the per-document scratch, keeping the best score per term. */
+    private int collectTerms(String text, Field field, int terms) {
+        if (text == null) {
+            return terms;
+        }
+        String folded = fold(text);
+        int i = 0;
+        while (i < folded.length()) {
+            int length = 0;
+            while (i < folded.length() && code(folded.charAt(i)) == 0) {
+                i++;
+            }
+            while (i < folded.length() && code(folded.charAt(i)) != 0) {
+                if (length < token.length) {
+                    token[length++] = folded.charAt(i);
+                }
+                i++;
+            }
+            int prefixes = Math.min(length, MAX_PREFIX);
+            for (int p = 1; p <= prefixes; p++) {
+                int score = field.ordinal() * 2 + (p == length ? 1 : 0);
+                terms = addTerm(pack(token, p), score, terms);
+            }
+        }
+        return terms;
+    }
+
+    private int addTerm(long key, int score, int terms) {
+        for (int i = 0; i < terms; i++) {
+            if (docTerms[i] == key) {
+                docScores[i] = Math.max(docScores[i], score);
+                return terms;
+            }
+        }
+        if (terms == docTerms.length) {
+            docTerms = Arrays.copyOf(docTerms, terms * 2);
+            docScores = Arrays.copyOf(docScores, terms * 2);
+        }
+        docTerms[terms] = key;
+        docScores[terms] = score;
+        return terms + 1;
+    }
+
+    private void append(int term, int entry) {
+        int[] list = postings[term];
+        int size = postingSize[term];
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, size + (size >> 1)));
+            postings[term] = list;
+        }
+        list[size] = entry;
+        postingSize[term] = size + 1;
+        postingBest[term] = (byte) Math.max(postingBest[term], entry & SCORE_MASK);
+    }
+
+    // ---- term dictionary
+
+    private int findTerm(long key) {
+        for (int i = hash(key) & termMask; termKeys[i] != 0; i = (i + 1) & termMask) {
+            if (termKeys[i] == key) {
+                return termIds[i];
+            }
+        }
+        return -1;
+    }
+
+    private int termId(long key) {
+        int i = hash(key) & termMask;
+        for (; termKeys[i] != 0; i = (i + 1) & termMask) {
+            if (termKeys[i] == key) {
+                return termIds[i];
+            }
+        }
+        int id = termCount++;
+        termKeys[i] = key;
+        termIds[i] = id;
+        if (id == postings.length) {
+            postings = Arrays.copyOf(postings, id * 2);
+            postingSize = Arrays.copyOf(postingSize, id * 2);
+            postingBest = Arrays.copyOf(postingBest, id * 2);
+        }
+        postings[id] = EMPTY;
+        if (termCount * 2 > termKeys.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        long[] oldKeys = termKeys;
+        int[] oldIds = termIds;
+        termKeys = new long[oldKeys.length * 2];
+        termIds = new int[oldKeys.length * 2];
+        termMask = termKeys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = hash(oldKeys[j]) & termMask;
+                while (termKeys[i] != 0) {
+                    i = (i + 1) & termMask;
+                }
+                termKeys[i] = oldKeys[j];
+                termIds[i] = oldIds[j];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    // ---- querying
+
+    /** First index at or after {@code from} whose entry is at least {@code target}. */
+    private static int gallop(int[] list, int from, int size, int target) {
+        int step = 1;
+        int hi = from;
+        while (hi < size && list[hi] < target) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        hi = Math.min(hi, size);
+        while (from < hi) {
+            int mid = (from + hi) >>> 1;
+            if (list[mid] < target) {
+                from = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return from;
+    }
+
+    /** Query tokens longer than the indexed prefix must still prefix a token of the document. */
+    private boolean verified(int doc, String[] verify) {
+        for (String full : verify) {
+            if (full != null && !documentHasPrefix(doc, full)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean documentHasPrefix(int doc, String prefix) {
+        String folded = fold(new String(arena, docStart[doc], docStart[doc + 1] - docStart[doc], StandardCharsets.UTF_8));
+        int i = 0;
+        while (i < folded.length()) {
+            while (i < folded.length() && code(folded.charAt(i)) == 0) {
+                i++;
+            }
+            if (folded.startsWith(prefix, i)) {
+                return true;
+            }
+            while (i < folded.length() && code(folded.charAt(i)) != 0) {
+                i++;
+            }
+        }
+        return false;
+    }
+
+    /** Inserts into the sorted top list (score desc, doc asc); returns the new fill. */
+    private static int offer(int[] docs, int[] scores, int found, int doc, int score) {
+        int limit = docs.length;
+        if (found == limit && scores[limit - 1] >= score) {
+            return found;
+        }
+        int i = Math.min(found, limit - 1);
+        while (i > 0 && scores[i - 1] < score) {
+            docs[i] = docs[i - 1];
+            scores[i] = scores[i - 1];
+            i--;
+        }
+        docs[i] = doc;
+        scores[i] = score;
+        return Math.min(found + 1, limit);
+    }
+
+    private Hit hit(int doc, int score) {
+        String[] fields = new String(arena, docStart[doc], docStart[doc + 1] - docStart[doc], StandardCharsets.UTF_8)
+                .split(String.valueOf((char) FIELD_SEPARATOR), -1);
+        int slot = slotOfDoc[doc];
+        return new Hit(new UUID(users.mostSignificantBits(slot), users.leastSignificantBits(slot)),
+                emptyToNull(fields[0]), emptyToNull(fields[1]), emptyToNull(fields[2]), score);
+    }
+
+    private static void sortBySize(int[][] lists, int[] sizes, String[] verify) {
+        for (int i = 1; i < sizes.length; i++) {
+            for (int j = i; j > 0 && sizes[j] < sizes[j - 1]; j--) {
+                int[] list = lists[j];
+                lists[j] = lists[j - 1];
+                lists[j - 1] = list;
+                int size = sizes[j];
+                sizes[j] = sizes[j - 1];
+                sizes[j - 1] = size;
+                String v = verify[j];
+                verify[j] = verify[j - 1];
+                verify[j - 1] = v;
+            }
+        }
+    }
+
+    // ---- text
+
+    /** Distinct folded tokens of a query, at most {@link #MAX_QUERY_TOKENS}. */
+    private static List<String> queryTokens(String query) {
+        List<String> tokens = new ArrayList<>(MAX_QUERY_TOKENS);
+        if (query == null) {
+            return tokens;
+        }
+        String folded = fold(query);
+        int i = 0;
+        while (i < folded.length() && tokens.size() < MAX_QUERY_TOKENS) {
+            while (i < folded.length() && code(folded.charAt(i)) == 0) {
+                i++;
+            }
+            int start = i;
+            while (i < folded.length() && code(folded.charAt(i)) != 0) {
+                i++;
+            }
+            if (i > start) {
+                String word = folded.substring(start, i);
+                if (!tokens.contains(word)) {
+                    tokens.add(word);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /** Lower-case with accents removed, e.g. "Zoë Müller" to "zoe muller". */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    /** 1-36 for a-z and 0-9, 0 for anything that separates tokens. */
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+
+    /** Base-37 with non-zero digits, so every prefix of up to ten characters gets its own non-zero key. */
+    private static long pack(char[] chars, int length) {
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            key = key * 37 + code(chars[i]);
+        }
+        return key;
+    }
+
+    private static long pack(String token, int length) {
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            key = key * 37 + code(token.charAt(i));
+        }
+        return key;
+    }
+
+    private static byte[] encode(String fullName, String city, String country, String pincode) {
+        String text = nullToEmpty(fullName) + (char) FIELD_SEPARATOR + nullToEmpty(city)
+                + (char) FIELD_SEPARATOR + nullToEmpty(country) + (char) FIELD_SEPARATOR + nullToEmpty(pincode);
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value.replace((char) FIELD_SEPARATOR, ' ');
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,281 @@
+package com.truerally.player.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of order-statistic trees over player slots, one tree per group (a
+ * country, a city, or a single global group). Each slot sits in at most one tree
+ * of the forest, so node links can live in flat {@code int[]} arrays indexed by
+ * slot instead of node objects.
+ * <p>
+ * The trees are treaps ordered by {@link SlotOrder} and augmented with subtree
+ * sizes, which gives expected O(log n) insert, remove and rank, and
+ * O(log n + k) for a page of k entries. A slot's sort key must not change while
+ * it is in a tree: remove it, update the key, insert it again. Not thread-safe.
+ */
+public final class RankForest {
+
+    /** Total order over slots; lower sorts first, i.e. ranks higher. */
+    @FunctionalInterface
+    public interface SlotOrder {
+        int compare(int a, int b);
+    }
+
+    private static final int NIL = -1;
+
+    private final SlotOrder order;
+    private final SplittableRandom random = new SplittableRandom(0x72616e6bL);
+    private int[] left;
+    private int[] right;
+    private int[] size;
+    private int[] priority;
+    private int[] roots;
+    private int[] stack = new int[64];
+
+    // Results of split(); fields rather than an allocated pair
+    private int splitLeft;
+    private int splitRight;
+
+    public RankForest(SlotOrder order, int capacity, int groups) {
+        this.order = order;
+        left = new int[capacity];
+        right = new int[capacity];
+        size = new int[capacity];
+        priority = new int[capacity];
+        roots = new int[Math.max(1, groups)];
+        Arrays.fill(roots, NIL);
+    }
+
+    public void insert(int group, int slot) {
+        ensureCapacity(slot + 1);
+        ensureGroup(group);
+        left[slot] = NIL;
+        right[slot] = NIL;
+        size[slot] = 1;
+        priority[slot] = random.nextInt();
+        split(roots[group], slot);
+        int greater = splitRight;
+        roots[group] = merge(merge(splitLeft, slot), greater);
+    }
+
+    /**
+     * Replaces an empty group's tree with a balanced one built from slots already
+     * in order, in O(n). Priorities are drawn as usual and handed out top-down, so
+     * the result is a valid treap for later inserts and removes.
+     */
+    public void build(int group, int[] sorted, int from, int to) {
+        ensureGroup(group);
+        if (roots[group] != NIL) {
+            throw new IllegalStateException("group " + group + " is not empty");
+        }
+        int n = to - from;
+        if (n == 0) {
+            return;
+        }
+        int maxSlot = 0;
+        for (int i = from; i < to; i++) {
+            maxSlot = Math.max(maxSlot, sorted[i]);
+        }
+        ensureCapacity(maxSlot + 1);
+        int[] priorities = random.ints(n).sorted().toArray();
+        // Breadth-first over index ranges: parents come off the queue before their
+        // children, so giving out priorities in descending order keeps heap order
+        int[] lo = new int[n];
+        int[] hi = new int[n];
+        int[] parent = new int[n];
+        lo[0] = from;
+        hi[0] = to;
+        parent[0] = NIL;
+        for (int head = 0, tail = 1; head < tail; head++) {
+            int mid = (lo[head] + hi[head]) >>> 1;
+            int node = sorted[mid];
+            left[node] = NIL;
+            right[node] = NIL;
+            size[node] = hi[head] - lo[head];
+            priority[node] = priorities[n - 1 - head];
+            int p = parent[head];
+            if (p == NIL) {
+                roots[group] = node;
+            } else if (order.compare(node, p) < 0) {
+                left[p] = node;
+            } else {
+                right[p] = node;
+            }
+            if (lo[head] < mid) {
+                lo[tail] = lo[head];
+                hi[tail] = mid;
+                parent[tail++] = node;
+            }
+            if (mid + 1 < hi[head]) {
+                lo[tail] = mid + 1;
+                hi[tail] = hi[head];
+                parent[tail++] = node;
+            }
+        }
+    }
+
+    /** Sorts slots by {@link SlotOrder}; a merge sort, to stay on {@code int[]}. */
+    public static void sort(int[] slots, SlotOrder order) {
+        int[] buffer = slots.clone();
+        mergeSort(buffer, slots, 0, slots.length, order);
+    }
+
+    private static void mergeSort(int[] src, int[] dst, int from, int to, SlotOrder order) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(dst, src, from, mid, order);
+        mergeSort(dst, src, mid, to, order);
+        for (int i = from, a = from, b = mid; i < to; i++) {
+            dst[i] = b >= to || (a < mid && order.compare(src[a], src[b]) <= 0) ? src[a++] : src[b++];
+        }
+    }
+
+    public void remove(int group, int slot) {
+        roots[group] = removeFrom(roots[group], slot);
+    }
+
+    /** Zero-based position of {@code slot} within its group, or -1 if absent. */
+    public int rank(int group, int slot) {
+        if (group >= roots.length) {
+            return NIL;
+        }
+        int rank = 0;
+        int t = roots[group];
+        while (t != NIL) {
+            int c = t == slot ? 0 : order.compare(slot, t);
+            if (c < 0) {
+                t = left[t];
+            } else if (c > 0) {
+                rank += sizeOf(left[t]) + 1;
+                t = right[t];
+            } else {
+                return rank + sizeOf(left[t]);
+            }
+        }
+        return NIL;
+    }
+
+    public int size(int group) {
+        return group < roots.length ? sizeOf(roots[group]) : 0;
+    }
+
+    /** Visits up to {@code limit} slots of a group in order, starting at position {@code from}. */
+    public void forEach(int group, int from, int limit, IntConsumer visitor) {
+        if (group >= roots.length || limit <= 0) {
+            return;
+        }
+        int depth = 0;
+        int t = roots[group];
+        int k = from;
+        while (t != NIL) {
+            int ls = sizeOf(left[t]);
+            if (k < ls) {
+                depth = push(depth, t);
+                t = left[t];
+            } else if (k == ls) {
+                depth = push(depth, t);
+                break;
+            } else {
+                k -= ls + 1;
+                t = right[t];
+            }
+        }
+        for (int visited = 0; depth > 0 && visited < limit; visited++) {
+            int node = stack[--depth];
+            visitor.accept(node);
+            for (t = right[node]; t != NIL; t = left[t]) {
+                depth = push(depth, t);
+            }
+        }
+    }
+
+    private int push(int depth, int node) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth] = node;
+        return depth + 1;
+    }
+
+    /** Splits {@code t} into slots ordered before {@code key} and the rest. */
+    private void split(int t, int key) {
+        if (t == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+        } else if (order.compare(t, key) < 0) {
+            split(right[t], key);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(left[t], key);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+
+    /** Joins two treaps where every slot of {@code a} orders before every slot of {@code b}. */
+    private int merge(int a, int b) {
+        if (a == NIL) {
+            return b;
+        }
+        if (b == NIL) {
+            return a;
+        }
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private int removeFrom(int t, int slot) {
+        if (t == NIL) {
+            return NIL;
+        }
+        if (t == slot) {
+            return merge(left[t], right[t]);
+        }
+        if (order.compare(slot, t) < 0) {
+            left[t] = removeFrom(left[t], slot);
+        } else {
+            right[t] = removeFrom(right[t], slot);
+        }
+        update(t);
+        return t;
+    }
+
+    private void update(int t) {
+        size[t] = sizeOf(left[t]) + sizeOf(right[t]) + 1;
+    }
+
+    private int sizeOf(int t) {
+        return t == NIL ? 0 : size[t];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > left.length) {
+            int grown = Math.max(capacity, left.length * 2);
+            left = Arrays.copyOf(left, grown);
+            right = Arrays.copyOf(right, grown);
+            size = Arrays.copyOf(size, grown);
+            priority = Arrays.copyOf(priority, grown);
+        }
+    }
+
+    private void ensureGroup(int group) {
+        if (group >= roots.length) {
+            int old = roots.length;
+            roots = Arrays.copyOf(roots, Math.max(group + 1, old * 2));
+            Arrays.fill(roots, old, roots.length, NIL);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.truerally.player.util;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Dense numbering of player ids: each UUID gets the next free {@code int} slot,
+ * which then indexes the primitive arrays that hold per-player state. Open
+ * addressing over two {@code long[]} halves, so there is no boxing and no
+ * per-entry object. Not thread-safe; callers guard it with their own lock.
+ */
+public final class UuidSlotMap {
+
+    private static final int EMPTY = -1;
+
+    private long[] msb;
+    private long[] lsb;
+    private int[] slots;
+    private long[] slotMsb;
+    private long[] slotLsb;
+    private int mask;
+    private int size;
+
+    public UuidSlotMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+        slotMsb = new long[Math.max(16, expectedSize)];
+        slotLsb = new long[slotMsb.length];
+    }
+
+    /** Slot of {@code id}, or -1 if it has none. */
+    public int get(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        for (int i = index(hi, lo); ; i = (i + 1) & mask) {
+            int slot = slots[i];
+            if (slot == EMPTY) {
+                return EMPTY;
+            }
+            if (msb[i] == hi && lsb[i] == lo) {
+                return slot;
+            }
+        }
+    }
+
+    /** Slot of {@code id}, assigning the next one if it is new. */
+    public int getOrAdd(UUID id) {
+        long hi = id.getMostSignificantBits();
+        long lo = id.getLeastSignificantBits();
+        int i = index(hi, lo);
+        for (; slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (msb[i] == hi && lsb[i] == lo) {
+                return slots[i];
+            }
+        }
+        int slot = size++;
+        msb[i] = hi;
+        lsb[i] = lo;
+        slots[i] = slot;
+        if (slot == slotMsb.length) {
+            slotMsb = Arrays.copyOf(slotMsb, slot * 2);
+            slotLsb = Arrays.copyOf(slotLsb, slot * 2);
+        }
+        slotMsb[slot] = hi;
+        slotLsb[slot] = lo;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return slot;
+    }
+
+    public UUID idOf(int slot) {
+        return new UUID(slotMsb[slot], slotLsb[slot]);
+    }
+
+    public long mostSignificantBits(int slot) {
+        return slotMsb[slot];
+    }
+
+    public long leastSignificantBits(int slot) {
+        return slotLsb[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int index(long hi, long lo) {
+        long h = hi ^ lo;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void allocate(int capacity) {
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash() {
+        long[] oldMsb = msb;
+        long[] oldLsb = lsb;
+        int[] oldSlots = slots;
+        allocate(oldSlots.length * 2);
+        for (int j = 0; j < oldSlots.length; j++) {
+            if (oldSlots[j] != EMPTY) {
+                int i = index(oldMsb[j], oldLsb[j]);
+                while (slots[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                msb[i] = oldMsb[j];
+                lsb[i] = oldLsb[j];
+                slots[i] = oldSlots[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Player profiles: a read model of auth-service users, keyed by User.id and
+-- maintained from the truerally.auth.events topic (see PlayerEventConsumer).
+-- last_event_id is the UUIDv7 event id of the last applied change; event ids
+-- sort by time, so redelivered older events never overwrite newer state.
+
+CREATE TABLE player.profiles (
+    user_id       uuid         PRIMARY KEY,
+    full_name     text         NOT NULL,
+    gender        varchar(16),
+    date_of_birth date,
+    city          text,
+    country       text,
+    pincode       varchar(16),
+    verified      boolean      NOT NULL DEFAULT false,
+    registered_at timestamptz  NOT NULL,
+    updated_at    timestamptz  NOT NULL,
+    last_event_id uuid         NOT NULL
+);
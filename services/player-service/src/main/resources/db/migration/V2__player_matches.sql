@@ -0,0 +1,14 @@
+-- Match results, in the order the rating engine applies them. Writers insert
+-- under a shared advisory lock, so seq values become visible in order and a
+-- reader tailing "seq > last applied" never skips a row that commits later.
+-- No foreign keys to profiles: results are validated against the engine's
+-- player set before they are written, and bulk loads stay cheap.
+
+CREATE TABLE player.matches (
+    seq         bigint       GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    winner_id   uuid         NOT NULL,
+    loser_id    uuid         NOT NULL,
+    played_at   timestamptz  NOT NULL,
+    recorded_at timestamptz  NOT NULL DEFAULT now(),
+    CHECK (winner_id <> loser_id)
+);
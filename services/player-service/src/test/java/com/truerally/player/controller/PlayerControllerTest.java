@@ -0,0 +1,70 @@
+package com.truerally.player.controller;
+
+import com.truerally.player.dto.PlayerSearchHit;
+import com.truerally.player.repository.PlayerProfile;
+import com.truerally.player.repository.PlayerProfileRepository;
+import com.truerally.player.service.PlayerSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(PlayerController.class)
+class PlayerControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @MockBean
+    private PlayerProfileRepository profiles;
+
+    @MockBean
+    private PlayerSearchIndex searchIndex;
+
+    @Test
+    void returnsPublicProfileFields() {
+        UUID user = UUID.randomUUID();
+        when(profiles.findById(user)).thenReturn(Mono.just(new PlayerProfile(user, "Ana", "F",
+                LocalDate.of(1995, 5, 17), "Pune", "IN", "411001", true, Instant.parse("2026-05-01T10:15:30Z"))));
+
+        client.get().uri("/players/{id}", user).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.fullName").isEqualTo("Ana")
+                .jsonPath("$.city").isEqualTo("Pune")
+                .jsonPath("$.verified").isEqualTo(true)
+                .jsonPath("$.memberSince").isEqualTo("2026-05-01T10:15:30Z")
+                .jsonPath("$.pincode").doesNotExist()
+                .jsonPath("$.dateOfBirth").doesNotExist();
+    }
+
+    @Test
+    void unknownPlayerIsNotFound() {
+        UUID user = UUID.randomUUID();
+        when(profiles.findById(user)).thenReturn(Mono.empty());
+
+        client.get().uri("/players/{id}", user).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void searchReturnsSuggestionsWithoutPincode() {
+        UUID user = UUID.randomUUID();
+        when(searchIndex.search("ana pu", 5)).thenReturn(List.of(new PlayerSearchHit(user, "Ana Kulkarni", "Pune", "IN")));
+
+        client.get().uri("/players/search?q={q}&limit=5", "ana pu").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].userId").isEqualTo(user.toString())
+                .jsonPath("$[0].fullName").isEqualTo("Ana Kulkarni")
+                .jsonPath("$[0].pincode").doesNotExist();
+    }
+}
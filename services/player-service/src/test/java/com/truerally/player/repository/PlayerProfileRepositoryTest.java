@@ -0,0 +1,85 @@
+package com.truerally.player.repository;
+
+import com.truerally.common.persistence.UuidV7;
+import com.truerally.common.events.UserRegistered;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays and out-of-order redeliveries must leave {@code player.profiles} as if
+ * every event had been applied exactly once, in order.
+ */
+@SpringBootTest(properties = "player.events.consumer.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+class PlayerProfileRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getFirstMappedPort() + "/" + POSTGRES.getDatabaseName());
+        registry.add("spring.r2dbc.username", POSTGRES::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES::getPassword);
+        registry.add("spring.flyway.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.flyway.user", POSTGRES::getUsername);
+        registry.add("spring.flyway.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private PlayerProfileRepository profiles;
+
+    @Test
+    void registrationAndVerificationInOneBatch() {
+        UUID user = UUID.randomUUID();
+
+        long changed = profiles.apply(List.of(
+                registered(user, "Pune", UuidV7.next()),
+                new ProfileChange.Verified(UuidV7.next(), user))).block();
+
+        assertEquals(2, changed);
+        PlayerProfile profile = profiles.findById(user).block();
+        assertNotNull(profile);
+        assertEquals("Pune", profile.city());
+        assertTrue(profile.verified());
+    }
+
+    @Test
+    void staleRedeliveryDoesNotOverwriteNewerState() {
+        UUID user = UUID.randomUUID();
+        UUID olderEventId = UuidV7.next();
+        ProfileChange.Registered first = registered(user, "Pune", UuidV7.next());
+        profiles.apply(List.of(first, new ProfileChange.Verified(UuidV7.next(), user))).block();
+
+        long changed = profiles.apply(List.of(first, registered(user, "Mumbai", olderEventId))).block();
+
+        assertEquals(0, changed);
+        PlayerProfile profile = profiles.findById(user).block();
+        assertEquals("Pune", profile.city());
+        assertTrue(profile.verified());
+    }
+
+    @Test
+    void unknownPlayerIsEmpty() {
+        assertNull(profiles.findById(UUID.randomUUID()).block());
+    }
+
+    private static ProfileChange.Registered registered(UUID user, String city, UUID eventId) {
+        return new ProfileChange.Registered(eventId, new UserRegistered(user, "ana@truerally.dev", "Ana",
+                LocalDate.of(1995, 5, 17), "F", city, "IN", "411001", Instant.now()));
+    }
+}
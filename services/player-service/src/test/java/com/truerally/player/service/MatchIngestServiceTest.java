@@ -0,0 +1,149 @@
+package com.truerally.player.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.truerally.player.config.IngestProperties;
+import com.truerally.player.config.RatingProperties;
+import com.truerally.player.dto.IngestReport;
+import com.truerally.player.repository.MatchRepository;
+import com.truerally.player.repository.MatchResult;
+import com.truerally.player.repository.PlayerLocation;
+import com.truerally.player.repository.PlayerProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MatchIngestServiceTest {
+
+    private final UUID ana = UUID.randomUUID();
+    private final UUID ben = UUID.randomUUID();
+    private final RatingEngine engine = new RatingEngine(new RatingProperties(), new SimpleMeterRegistry());
+    private final MatchRepository matches = mock(MatchRepository.class);
+    private final IngestProperties properties = new IngestProperties();
+    private final List<List<MatchResult>> batches = new ArrayList<>();
+    private MatchIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        engine.locate(List.of(new PlayerLocation(ana, "IN", "Pune"), new PlayerLocation(ben, "IN", "Pune")));
+        engine.markReady();
+        properties.setBatchSize(2);
+        properties.setMaxReportedErrors(2);
+        when(matches.copy(anyList())).thenAnswer(invocation -> {
+            List<MatchResult> batch = invocation.getArgument(0);
+            batches.add(batch);
+            return Mono.just((long) batch.size());
+        });
+        service = newService();
+    }
+
+    @Test
+    void csvLinesSplitAcrossChunksAreBatchedAndBadLinesReported() {
+        String body = "winnerId,loserId,playedAt\n"
+                + csv(ana, ben) + "\n"
+                + csv(ben, ana) + "\n"
+                + "\n"
+                + csv(ana, ana) + "\n"
+                + "not,a,match\n"
+                + ana + "," + UUID.randomUUID() + ",2026-05-01T10:15:30Z\n"
+                + csv(ana, ben);
+
+        IngestReport report = service.ingest(chunks(body, 7), MatchLineParser.Format.CSV).block();
+
+        assertEquals(8, report.lines());
+        assertEquals(3, report.accepted());
+        assertEquals(3, report.rejected());
+        assertEquals(8, report.committedThroughLine());
+        assertEquals(List.of(
+                new IngestReport.LineError(5, "winner and loser must be different players"),
+                new IngestReport.LineError(6, "winnerId is not a UUID")), report.errors());
+        assertTrue(report.errorsTruncated());
+        assertNull(report.aborted());
+        assertEquals(List.of(2, 1), batches.stream().map(List::size).toList());
+    }
+
+    @Test
+    void ndjsonRecordsMapToResults() {
+        String body = "{\"winnerId\":\"" + ana + "\",\"loserId\":\"" + ben + "\",\"playedAt\":\"2026-05-01T10:15:30Z\"}\n"
+                + "{\"winnerId\":\"" + ana + "\"\n";
+
+        IngestReport report = service.ingest(chunks(body, 16), MatchLineParser.Format.NDJSON).block();
+
+        assertEquals(1, report.accepted());
+        assertEquals(2, report.errors().getFirst().line());
+        assertEquals(List.of(MatchResult.of(ana, ben, Instant.parse("2026-05-01T10:15:30Z"))), batches.getFirst());
+    }
+
+    @Test
+    void failedBatchAbortsWithTheLastCommittedLine() {
+        AtomicInteger calls = new AtomicInteger();
+        when(matches.copy(anyList())).thenAnswer(invocation -> calls.incrementAndGet() == 1
+                ? Mono.just(2L)
+                : Mono.error(new IllegalStateException("connection reset")));
+        String body = String.join("\n", csv(ana, ben), csv(ben, ana), csv(ana, ben), csv(ben, ana), csv(ana, ben));
+
+        IngestReport report = service.ingest(chunks(body, 64), MatchLineParser.Format.CSV).block();
+
+        assertEquals("connection reset", report.aborted());
+        assertEquals(2, report.accepted());
+        assertEquals(2, report.committedThroughLine());
+    }
+
+    @Test
+    void onlyOneBatchIsWrittenAtATime() {
+        properties.setBatchSize(1);
+        service = newService();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(matches.copy(anyList())).thenAnswer(invocation -> Mono.just(1L)
+                .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .delayElement(Duration.ofMillis(5))
+                .doOnTerminate(inFlight::decrementAndGet));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            body.append(csv(ana, ben)).append('\n');
+        }
+
+        IngestReport report = service.ingest(chunks(body.toString(), 1024), MatchLineParser.Format.CSV).block();
+
+        assertEquals(20, report.accepted());
+        assertEquals(1, maxInFlight.get());
+    }
+
+    private MatchIngestService newService() {
+        RatingService ratingService = new RatingService(engine, matches, mock(PlayerProfileRepository.class));
+        return new MatchIngestService(engine, ratingService, matches, properties,
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+    }
+
+    private static String csv(UUID winner, UUID loser) {
+        return winner + "," + loser + ",2026-05-01T10:15:30Z";
+    }
+
+    private static Flux<DataBuffer> chunks(String body, int size) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += size) {
+            byte[] chunk = Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + size));
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+        return Flux.fromIterable(chunks);
+    }
+}
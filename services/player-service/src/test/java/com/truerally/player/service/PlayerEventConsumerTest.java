@@ -0,0 +1,103 @@
+package com.truerally.player.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.truerally.common.events.AuthEvent;
+import com.truerally.common.events.AuthEventHeaders;
+import com.truerally.common.events.SessionStarted;
+import com.truerally.common.events.UserRegistered;
+import com.truerally.common.events.UserVerified;
+import com.truerally.player.config.PlayerEventsProperties;
+import com.truerally.player.repository.PlayerLocation;
+import com.truerally.player.repository.PlayerProfileRepository;
+import com.truerally.player.repository.ProfileChange;
+import com.truerally.player.repository.SearchDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class PlayerEventConsumerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final PlayerProfileRepository profiles = mock(PlayerProfileRepository.class);
+    private final RatingEngine ratingEngine = mock(RatingEngine.class);
+    private final PlayerSearchIndex searchIndex = mock(PlayerSearchIndex.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PlayerEventConsumer consumer = new PlayerEventConsumer(profiles, ratingEngine, searchIndex, objectMapper,
+            new PlayerEventsProperties(), meterRegistry);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesProfileEventsAsOneBatchAndSkipsSessionEvents() throws Exception {
+        when(profiles.apply(anyList())).thenReturn(Mono.just(2L));
+        UUID user = UUID.randomUUID();
+        UUID registeredId = UUID.randomUUID();
+        UUID verifiedId = UUID.randomUUID();
+
+        consumer.onEvents(List.of(
+                record(new UserRegistered(user, "ana@truerally.dev", "Ana", LocalDate.of(1995, 5, 17),
+                        "F", "Pune", "IN", "411001", Instant.now()), registeredId),
+                record(new SessionStarted(user, "jti-1", Instant.now(), false, Instant.now()), UUID.randomUUID()),
+                record(new UserVerified(user, Instant.now()), verifiedId)));
+
+        ArgumentCaptor<List<ProfileChange>> batch = ArgumentCaptor.forClass(List.class);
+        verify(profiles).apply(batch.capture());
+        assertEquals(2, batch.getValue().size());
+        ProfileChange.Registered registered = (ProfileChange.Registered) batch.getValue().get(0);
+        assertEquals(registeredId, registered.eventId());
+        assertEquals("Pune", registered.event().city());
+        assertEquals(new ProfileChange.Verified(verifiedId, user), batch.getValue().get(1));
+        assertEquals(1.0, meterRegistry.counter("player.events.applied", "type", "UserVerified").count());
+        verify(ratingEngine).locate(List.of(new PlayerLocation(user, "IN", "Pune")));
+        verify(searchIndex).index(List.of(new SearchDocument(user, "Ana", "Pune", "IN", "411001")));
+    }
+
+    @Test
+    void failedWriteIsRethrownSoTheBatchIsRedelivered() throws Exception {
+        when(profiles.apply(anyList())).thenReturn(Mono.error(new IllegalStateException("pool exhausted")));
+
+        List<ConsumerRecord<String, byte[]>> batch = List.of(
+                record(new UserVerified(UUID.randomUUID(), Instant.now()), UUID.randomUUID()));
+
+        assertThrows(IllegalStateException.class, () -> consumer.onEvents(batch));
+    }
+
+    @Test
+    void skipsUnreadableRecordsWithoutWriting() {
+        ConsumerRecord<String, byte[]> garbled = new ConsumerRecord<>(AuthEvent.TOPIC, 0, 0L, "k",
+                "not json".getBytes(StandardCharsets.UTF_8));
+        garbled.headers().add(AuthEventHeaders.EVENT_TYPE, "UserRegistered".getBytes(StandardCharsets.UTF_8));
+        garbled.headers().add(AuthEventHeaders.EVENT_ID, UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        ConsumerRecord<String, byte[]> noId = new ConsumerRecord<>(AuthEvent.TOPIC, 0, 1L, "k",
+                "{}".getBytes(StandardCharsets.UTF_8));
+        noId.headers().add(AuthEventHeaders.EVENT_TYPE, "UserVerified".getBytes(StandardCharsets.UTF_8));
+
+        consumer.onEvents(List.of(garbled, noId));
+
+        verifyNoInteractions(profiles, searchIndex);
+        assertEquals(2.0, meterRegistry.counter("player.events.skipped").count());
+    }
+
+    private ConsumerRecord<String, byte[]> record(AuthEvent event, UUID eventId) throws Exception {
+        ConsumerRecord<String, byte[]> record = new ConsumerRecord<>(AuthEvent.TOPIC, 0, 0L,
+                event.userId().toString(), objectMapper.writeValueAsBytes(event));
+        record.headers().add(AuthEventHeaders.EVENT_TYPE, event.type().wireName().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(AuthEventHeaders.EVENT_ID, eventId.toString().getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
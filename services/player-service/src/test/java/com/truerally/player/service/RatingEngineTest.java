@@ -0,0 +1,155 @@
+package com.truerally.player.service;
+
+import com.truerally.player.config.RatingProperties;
+import com.truerally.player.repository.MatchResult;
+import com.truerally.player.repository.PlayerLocation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingEngineTest {
+
+    private final RatingEngine engine = newEngine();
+    private final UUID ana = UUID.randomUUID();
+    private final UUID ben = UUID.randomUUID();
+    private final UUID chen = UUID.randomUUID();
+    private long seq;
+
+    @Test
+    void winnerGainsWhatLoserLosesAndBothBecomeMoreCertain() {
+        engine.apply(List.of(match(ana, ben)));
+
+        RatingEngine.PlayerRating winner = engine.ratingOf(ana).orElseThrow();
+        RatingEngine.PlayerRating loser = engine.ratingOf(ben).orElseThrow();
+        assertTrue(winner.rating() > 1500);
+        assertEquals(winner.rating() - 1500, 1500 - loser.rating(), 1e-6);
+        assertTrue(winner.deviation() < 350);
+        assertEquals(1, winner.rank());
+        assertEquals(2, loser.rank());
+        assertTrue(engine.ratingOf(chen).isEmpty());
+    }
+
+    @Test
+    void upsetMovesRatingsMoreThanExpectedResult() {
+        RatingEngine other = newEngine();
+        List<MatchResult> history = List.of(match(ana, ben), match(ana, ben), match(ana, chen));
+        engine.apply(history);
+        other.apply(history);
+        double before = engine.ratingOf(ana).orElseThrow().rating();
+
+        engine.apply(List.of(new MatchResult(seq + 1, ana, ben, Instant.now())));
+        other.apply(List.of(new MatchResult(seq + 1, ben, ana, Instant.now())));
+
+        double expectedGain = engine.ratingOf(ana).orElseThrow().rating() - before;
+        double upsetLoss = before - other.ratingOf(ana).orElseThrow().rating();
+        assertTrue(expectedGain > 0);
+        assertTrue(upsetLoss > expectedGain, () -> "gain " + expectedGain + " loss " + upsetLoss);
+    }
+
+    @Test
+    void countryAndCityBoardsFollowLocation() {
+        engine.locate(List.of(
+                new PlayerLocation(ana, "IN", "Pune"),
+                new PlayerLocation(ben, "in", " pune "),
+                new PlayerLocation(chen, "SG", "Singapore")));
+        engine.apply(List.of(match(chen, ana), match(ana, ben)));
+
+        assertEquals(List.of(ana, ben), ids(engine.leaderboard("IN", "Pune", 0, 10)));
+        assertEquals(List.of(chen), ids(engine.leaderboard("SG", null, 0, 10)));
+        assertEquals(3, engine.leaderboard(null, null, 0, 10).size());
+        assertTrue(engine.leaderboard("FR", null, 0, 10).isEmpty());
+
+        engine.locate(List.of(new PlayerLocation(ben, "IN", "Mumbai")));
+
+        assertEquals(List.of(ana), ids(engine.leaderboard("IN", "Pune", 0, 10)));
+        assertEquals(1, engine.ratingOf(ben).orElseThrow().cityRank());
+        assertEquals(2, engine.ratingOf(ben).orElseThrow().countryRank());
+    }
+
+    @Test
+    void appliedResultsAreSkippedOnReplay() {
+        List<MatchResult> batch = List.of(match(ana, ben), match(ben, chen));
+
+        assertEquals(2, engine.apply(batch));
+        assertEquals(0, engine.apply(batch));
+        assertEquals(seq, engine.appliedSeq());
+        assertEquals(1, engine.ratingOf(ana).orElseThrow().games());
+    }
+
+    @Test
+    void readersGetInBetweenChunksOfALargeBatch() throws Exception {
+        List<UUID> pool = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            pool.add(UUID.randomUUID());
+        }
+        Random random = new Random(11);
+        List<MatchResult> batch = new ArrayList<>();
+        for (int i = 0; i < 200 * RatingEngine.WRITE_CHUNK; i++) {
+            int w = random.nextInt(pool.size());
+            batch.add(match(pool.get(w), pool.get((w + 1 + random.nextInt(pool.size() - 1)) % pool.size())));
+        }
+
+        Thread writer = new Thread(() -> engine.apply(batch));
+        writer.start();
+        boolean sawPartialBatch = false;
+        long observed;
+        do {
+            observed = engine.appliedSeq();
+            sawPartialBatch |= observed > 0 && observed < seq;
+        } while (observed < seq);
+        writer.join();
+
+        assertTrue(sawPartialBatch, "a read waited for the whole batch");
+        assertEquals(seq, observed);
+    }
+
+    @Test
+    void snapshotRestoresIdenticalRatingsAndRanks(@TempDir Path dir) throws Exception {
+        Random random = new Random(7);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        List<MatchResult> history = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int w = random.nextInt(ids.size());
+            int l = (w + 1 + random.nextInt(ids.size() - 1)) % ids.size();
+            history.add(match(ids.get(w), ids.get(l)));
+        }
+        engine.apply(history);
+        Path file = dir.resolve("ratings.snapshot");
+
+        engine.snapshot().write(file);
+        RatingEngine restored = newEngine();
+        restored.restore(RatingSnapshot.read(file));
+
+        assertEquals(engine.appliedSeq(), restored.appliedSeq());
+        for (UUID id : ids) {
+            assertEquals(engine.ratingOf(id), restored.ratingOf(id));
+        }
+        assertEquals(engine.leaderboard(null, null, 100, 50), restored.leaderboard(null, null, 100, 50));
+    }
+
+    private MatchResult match(UUID winner, UUID loser) {
+        return new MatchResult(++seq, winner, loser, Instant.now());
+    }
+
+    private static List<UUID> ids(List<RatingEngine.RankedPlayer> page) {
+        return page.stream().map(RatingEngine.RankedPlayer::userId).toList();
+    }
+
+    private static RatingEngine newEngine() {
+        RatingProperties properties = new RatingProperties();
+        properties.setExpectedPlayers(16);
+        return new RatingEngine(properties, new SimpleMeterRegistry());
+    }
+}
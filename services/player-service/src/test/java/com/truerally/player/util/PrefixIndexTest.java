@@ -0,0 +1,112 @@
+package com.truerally.player.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = new PrefixIndex(16, 10_000);
+
+    @Test
+    void ranksNameMatchesAboveCityMatchesAndWholeWordsAbovePrefixes() {
+        UUID anand = put("Anand Rao", "Mumbai", "IN", "400001");
+        UUID ana = put("Ana Kulkarni", "Pune", "IN", "411001");
+        UUID fromAnantapur = put("Ravi Iyer", "Anantapur", "IN", "515001");
+
+        assertEquals(List.of(ana, anand, fromAnantapur), ids(index.search("ana", 10)));
+        assertEquals(List.of(ana), ids(index.search("ana pu", 10)));
+        assertEquals(List.of(ana), ids(index.search("4110", 10)));
+        assertEquals(List.of(anand), ids(index.search("anan mum", 10)));
+        assertTrue(index.search("ana delhi", 10).isEmpty());
+        assertTrue(index.search("  ,. ", 10).isEmpty());
+    }
+
+    @Test
+    void foldsCaseAndAccentsAndReturnsStoredText() {
+        UUID zoe = put("Zoë Müller", "Zürich", "CH", "8001");
+
+        PrefixIndex.Hit hit = index.search("ZOE mull", 10).getFirst();
+        assertEquals(zoe, hit.userId());
+        assertEquals("Zoë Müller", hit.fullName());
+        assertEquals("Zürich", hit.city());
+        assertEquals("CH", hit.country());
+        assertEquals(List.of(zoe), ids(index.search("zur", 10)));
+    }
+
+    @Test
+    void tokensLongerThanTheIndexedPrefixAreChecked() {
+        UUID venkat = put("Venkataraman Subramanian", "Chennai", "IN", "600001");
+        put("Venkatarama Iyer", "Chennai", "IN", "600002");
+
+        assertEquals(2, index.search("venkatara", 10).size());
+        assertEquals(List.of(venkat), ids(index.search("venkataraman", 10)));
+        assertTrue(index.search("venkataramx", 10).isEmpty());
+    }
+
+    @Test
+    void reindexingReplacesTheOldTextAndRepeatsAreIgnored() {
+        UUID user = UUID.randomUUID();
+        assertTrue(index.put(user, "Ana Kulkarni", "Pune", "IN", "411001"));
+        assertFalse(index.put(user, "Ana Kulkarni", "Pune", "IN", "411001"));
+        assertTrue(index.put(user, "Ana Kulkarni", "Nagpur", null, null));
+
+        assertTrue(index.search("pune", 10).isEmpty());
+        assertEquals(List.of(user), ids(index.search("ana nag", 10)));
+        assertNull(index.search("ana", 10).getFirst().country());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void matchesABruteForceScanOnRandomPlayers() {
+        String[] first = {"Ana", "Anand", "Anil", "Arjun", "Asha", "Priya", "Pranav", "Rahul", "Ravi", "Riya"};
+        String[] last = {"Rao", "Rane", "Patil", "Pawar", "Iyer", "Joshi", "Kulkarni", "Kumar"};
+        String[] cities = {"Pune", "Mumbai", "Nagpur", "Nashik", "Panaji"};
+        Random random = new Random(7);
+        PrefixIndex small = new PrefixIndex(16, Integer.MAX_VALUE);
+        List<String[]> players = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            String[] p = {first[random.nextInt(first.length)] + " " + last[random.nextInt(last.length)],
+                    cities[random.nextInt(cities.length)], "IN", String.valueOf(400_000 + random.nextInt(20_000))};
+            players.add(p);
+            small.put(new UUID(0, i), p[0], p[1], p[2], p[3]);
+        }
+        for (String query : List.of("a", "an", "pa", "ra pu", "ani pa", "p", "40", "riya nash 41", "kum rav")) {
+            List<PrefixIndex.Hit> hits = small.search(query, 20);
+            List<PrefixIndex.Hit> all = small.search(query, players.size());
+            assertEquals(all.subList(0, hits.size()), hits, query);
+            long expected = players.stream().filter(p -> matchesAll(p, query)).count();
+            assertEquals(Math.min(20, expected), hits.size(), query);
+            for (int i = 1; i < hits.size(); i++) {
+                PrefixIndex.Hit a = hits.get(i - 1);
+                PrefixIndex.Hit b = hits.get(i);
+                assertTrue(a.score() > b.score()
+                        || a.score() == b.score() && a.userId().getLeastSignificantBits() < b.userId().getLeastSignificantBits(), query);
+            }
+            for (PrefixIndex.Hit hit : hits) {
+                assertTrue(matchesAll(players.get((int) hit.userId().getLeastSignificantBits()), query), query);
+            }
+        }
+    }
+
+    private static boolean matchesAll(String[] player, String query) {
+        List<String> words = Arrays.stream(String.join(" ", player).toLowerCase().split(" ")).toList();
+        return Arrays.stream(query.split(" ")).allMatch(q -> words.stream().anyMatch(w -> w.startsWith(q)));
+    }
+
+    private UUID put(String fullName, String city, String country, String pincode) {
+        UUID user = UUID.randomUUID();
+        index.put(user, fullName, city, country, pincode);
+        return user;
+    }
+
+    private static List<UUID> ids(List<PrefixIndex.Hit> hits) {
+        return hits.stream().map(PrefixIndex.Hit::userId).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.truerally.player.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankForestTest {
+
+    private final double[] score = new double[10_000];
+    private final Comparator<Integer> byScore = (a, b) -> {
+        int c = Double.compare(score[b], score[a]);
+        return c != 0 ? c : Integer.compare(a, b);
+    };
+    private final RankForest forest = new RankForest(byScore::compare, 16, 1);
+
+    @Test
+    void ranksAndPagesMatchASortedReferenceUnderRandomUpdates() {
+        Random random = new Random(42);
+        List<TreeSet<Integer>> groups = List.of(new TreeSet<>(byScore), new TreeSet<>(byScore), new TreeSet<>(byScore));
+        int[] groupOf = new int[score.length];
+        for (int slot = 0; slot < score.length; slot++) {
+            score[slot] = random.nextInt(3000);
+            groupOf[slot] = random.nextInt(groups.size());
+            forest.insert(groupOf[slot], slot);
+            groups.get(groupOf[slot]).add(slot);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            int slot = random.nextInt(score.length);
+            forest.remove(groupOf[slot], slot);
+            groups.get(groupOf[slot]).remove(slot);
+            score[slot] = random.nextInt(3000);
+            groupOf[slot] = random.nextInt(groups.size());
+            forest.insert(groupOf[slot], slot);
+            groups.get(groupOf[slot]).add(slot);
+        }
+
+        for (int group = 0; group < groups.size(); group++) {
+            List<Integer> expected = new ArrayList<>(groups.get(group));
+            assertEquals(expected.size(), forest.size(group));
+            for (int rank = 0; rank < expected.size(); rank += 97) {
+                assertEquals(rank, forest.rank(group, expected.get(rank)));
+            }
+            List<Integer> page = new ArrayList<>();
+            forest.forEach(group, 1000, 25, page::add);
+            assertEquals(expected.subList(1000, 1025), page);
+        }
+    }
+
+    @Test
+    void bulkBuiltTreeBehavesLikeAnInsertedOne() {
+        Random random = new Random(7);
+        int[] slots = new int[5_000];
+        for (int slot = 0; slot < slots.length; slot++) {
+            score[slot] = random.nextInt(1000);
+            slots[slot] = slot;
+        }
+        RankForest.sort(slots, byScore::compare);
+        forest.build(0, slots, 0, slots.length);
+        TreeSet<Integer> reference = new TreeSet<>(byScore);
+        for (int slot : slots) {
+            reference.add(slot);
+        }
+        for (int i = 0; i < 5_000; i++) {
+            int slot = random.nextInt(slots.length);
+            forest.remove(0, slot);
+            reference.remove(slot);
+            score[slot] = random.nextInt(1000);
+            forest.insert(0, slot);
+            reference.add(slot);
+        }
+
+        List<Integer> all = new ArrayList<>();
+        forest.forEach(0, 0, Integer.MAX_VALUE, all::add);
+        assertEquals(new ArrayList<>(reference), all);
+        assertEquals(all.indexOf(1234), forest.rank(0, 1234));
+        assertThrows(IllegalStateException.class, () -> forest.build(0, slots, 0, 1));
+    }
+
+    @Test
+    void removedSlotHasNoRankAndPagesStopAtTheEnd() {
+        for (int slot = 0; slot < 5; slot++) {
+            score[slot] = slot;
+            forest.insert(0, slot);
+        }
+        forest.remove(0, 2);
+
+        assertEquals(-1, forest.rank(0, 2));
+        assertEquals(0, forest.rank(0, 4));
+        List<Integer> page = new ArrayList<>();
+        forest.forEach(0, 2, 10, page::add);
+        assertEquals(List.of(1, 0), page);
+        assertEquals(0, forest.size(7));
+    }
+}